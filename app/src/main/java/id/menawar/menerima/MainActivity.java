@@ -43,53 +43,35 @@ import androidx.coordinatorlayout.widget.CoordinatorLayout;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.textfield.TextInputEditText;
 
-import org.spongycastle.asn1.ASN1Encoding;
 import org.spongycastle.asn1.ASN1InputStream;
 import org.spongycastle.asn1.ASN1Integer;
-import org.spongycastle.asn1.ASN1Primitive;
-import org.spongycastle.asn1.ASN1Set;
 import org.spongycastle.asn1.DERBitString;
 import org.spongycastle.asn1.DERNull;
 import org.spongycastle.asn1.DEROctetString;
-import org.spongycastle.asn1.DERSet;
 import org.spongycastle.asn1.DLSequence;
-import org.spongycastle.asn1.cms.AttributeTable;
-import org.spongycastle.asn1.cms.CMSAttributes;
 import org.spongycastle.asn1.cms.CMSObjectIdentifiers;
-import org.spongycastle.asn1.cms.Time;
-import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
 import org.spongycastle.cms.CMSAttributeTableGenerator;
 import org.spongycastle.cms.DefaultSignedAttributeTableGenerator;
-import org.spongycastle.cms.SignerInfoGenerator;
-import org.spongycastle.cms.SignerInformation;
-import org.spongycastle.cms.SignerInformationVerifier;
-import org.spongycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
-import org.spongycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
-import org.spongycastle.mail.smime.SMIMESigned;
-import org.spongycastle.mail.smime.SMIMESignedGenerator;
+import org.spongycastle.operator.ContentSigner;
+import org.spongycastle.operator.DigestCalculator;
 import org.spongycastle.util.Arrays;
 import org.spongycastle.util.encoders.Base64;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.net.HttpURLConnection;
-import java.net.InetAddress;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.security.KeyPairGenerator;
 import java.security.KeyStore;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.PrivateKey;
-import java.security.Signature;
-import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.security.spec.AlgorithmParameterSpec;
 import java.text.Format;
@@ -100,33 +82,39 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.Locale;
-import java.util.Objects;
-import java.util.Random;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
-import javax.mail.internet.MimeBodyPart;
-import javax.mail.internet.MimeMultipart;
 import javax.security.auth.x500.X500Principal;
 
-import id.menawar.menerima.utility.PemUtils;
+import id.menawar.menerima.utility.Aplikasi;
+import id.menawar.menerima.utility.DaftarMitra;
+import id.menawar.menerima.utility.DwimalBertahap;
+import id.menawar.menerima.utility.Janji;
+import id.menawar.menerima.utility.KonteksKripto;
+import id.menawar.menerima.utility.PengirimAS2;
+import id.menawar.menerima.utility.PratinjauTertunda;
 
 public class MainActivity extends AppCompatActivity {
     private CoordinatorLayout mCoordinatorLayout;
     private TextInputEditText alamatOfferee, penawaranElektronikPasal20UUITE2008, dwimalisasiRedaksiPenawaran, ttdOfferor, waktuPenandatanganan, hashPesan, responOfferee, ttdOfferee, verifikasiTtdOfferee;
     private final ExecutorService es = Executors.newSingleThreadExecutor();
-    private X509Certificate offereeCert;
+    private final ExecutorService esPratinjau = Executors.newSingleThreadExecutor();
+    private static final long JEDA_PRATINJAU = 250;
+    private PratinjauTertunda<Pratinjau> pratinjau;
+    private final DwimalBertahap dwimal = new DwimalBertahap();
+    private DaftarMitra daftarMitra;
+    private static final int KAPASITAS_MITRA = 32;
     private X509Certificate offerorCert;
     private PrivateKey offerorKey;
-    private SignerInformationVerifier siv;
-    private SMIMESignedGenerator gen;
-    private Signature signature;
-    private MessageDigest digest, digestSignedAttr;
+    private PengirimAS2 pengirim;
+    private static final int BATAS_WAKTU_MDN = 60000;
+    private Janji<PengirimAS2.HasilMDN> pesan;
+    private KonteksKripto kripto;
     private Format numberFormat;
-    private HashMap parameters;
-    private CMSAttributeTableGenerator sAttrGen;
+    private DefaultSignedAttributeTableGenerator sAttrGen;
     private static String KEY_NAME = "pasangan_kunci";
     private static String FIRST = "pertama-kali-pasang";
     private String uniqueID;
@@ -171,18 +159,6 @@ public class MainActivity extends AppCompatActivity {
         penawaranElektronikPasal20UUITE2008.requestFocus();
         dateFormat = new SimpleDateFormat("dd MMMM yyyy, HH:mm:ss z");
         sAttrGen = new DefaultSignedAttributeTableGenerator();
-
-        parameters = new HashMap();
-        parameters.put(CMSAttributeTableGenerator.CONTENT_TYPE, CMSObjectIdentifiers.data);
-        parameters.put(CMSAttributeTableGenerator.DIGEST_ALGORITHM_IDENTIFIER, new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha512, DERNull.INSTANCE));
-        parameters.put(CMSAttributeTableGenerator.SIGNATURE_ALGORITHM_IDENTIFIER, new AlgorithmIdentifier(PKCSObjectIdentifiers.sha512WithRSAEncryption, DERNull.INSTANCE));
-
-        try {
-            digestSignedAttr = MessageDigest.getInstance("SHA512");
-        } catch (NoSuchAlgorithmException e) {
-            Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
         /*
           § 2-201. Formal Requirements; Statute of Frauds.
           (1) A contract for the sale of goods for the price of $5,000 or more is not enforceable
@@ -204,39 +180,49 @@ public class MainActivity extends AppCompatActivity {
 
             @Override
             public void onTextChanged(CharSequence charSequence, int i, int i1, int i2) {
+                dwimal.ubah(charSequence, i, i1, i2, dwimalisasiRedaksiPenawaran.getText());
             }
 
             @Override
             public void afterTextChanged(Editable editable) {
-                try {
-                    dwimalisasiRedaksiPenawaran.setText(getDvimalString(editable.toString()));
-                    ttdOfferor.setText(tandatangannyaOfferor(editable.toString()));
-                } catch (Exception e) {
-                    Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
-                    e.printStackTrace();
-                }
+                pratinjau.minta(editable.toString());
             }
         });
 
         dwimalisasiRedaksiPenawaran = findViewById(R.id.dwimalisasiRedaksiPenawaran);
-        dwimalisasiRedaksiPenawaran.setText(getDvimalString(penawaranElektronikPasal20UUITE2008.getText().toString()));
+        //hanya tampilan, isinya diperbarui per baris oleh dwimal sehingga tidak boleh disunting pengguna
+        dwimalisasiRedaksiPenawaran.setKeyListener(null);
+        dwimal.setel(penawaranElektronikPasal20UUITE2008.getText());
+        dwimalisasiRedaksiPenawaran.setText(dwimal.render());
 
         //BigInteger eksponenPenandatanganan = ((ASN1Integer) ((DLSequence) new ASN1InputStream(((DEROctetString) ((DLSequence) new ASN1InputStream(offerorKey.getEncoded()).readObject()).getObjectAt(2)).getOctets()).readObject()).getObjectAt(3)).getValue();
 
         ttdOfferor = findViewById(R.id.ttdOfferor);
-        try {
-            ttdOfferor.setText(tandatangannyaOfferor(penawaranElektronikPasal20UUITE2008.getText().toString()));
-        } catch (Exception e) {
-            Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
-            e.printStackTrace();
-        }
+
+        //hash SHA-512 dan tanda tangan AndroidKeyStore terlalu berat untuk tiap ketukan di thread UI
+        pratinjau = new PratinjauTertunda<>(esPratinjau, JEDA_PRATINJAU, this::tandatangannyaOfferor, new PratinjauTertunda.Penerima<Pratinjau>() {
+            @Override
+            public void terima(Pratinjau p) {
+                hashPesan.setText(p.hash);
+                waktuPenandatanganan.setText(dateFormat.format(p.waktu));
+                ttdOfferor.setText(sig(p.ttd));
+            }
+
+            @Override
+            public void gagal(Exception e) {
+                Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
+                e.printStackTrace();
+            }
+        });
+        pratinjau.minta(penawaranElektronikPasal20UUITE2008.getText().toString());
 
         responOfferee = findViewById(R.id.responOfferee);
         TextInputEditText kunciVerifikasiOfferee = findViewById(R.id.kunciVerifikasiOfferee);
 
         try {
+            X509Certificate offereeCert = daftarMitra.cari(PengirimAS2.AS2_TO_BAWAAN).sertifikat;
             kunciVerifikasiOfferee.setText(bigIntToString(((ASN1Integer) ((DLSequence) new ASN1InputStream(((DERBitString) ((DLSequence) ((DLSequence) ((DLSequence) new ASN1InputStream(offereeCert.getEncoded()).readObject()).getObjectAt(0)).getObjectAt(6)).getObjectAt(1)).getOctets()).readObject()).getObjectAt(0)).getPositiveValue()));
-        } catch (IOException | CertificateEncodingException e) {
+        } catch (Exception e) {
             Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
             e.printStackTrace();
         }
@@ -250,23 +236,34 @@ public class MainActivity extends AppCompatActivity {
             try {
                 formValidation();
                 String redaksiPerikatan = penawaranElektronikPasal20UUITE2008.getText().toString();
-                dwimalisasiRedaksiPenawaran.setText(getDvimalString(redaksiPerikatan));
 
-                Future<MimeMultipart> pesan = CallSynchronous("redaksiPerikatan=" + URLEncoder.encode(redaksiPerikatan, "utf-8"), alamatOfferee.getText().toString());
-                MimeMultipart body = pesan.get();
-
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                body.getBodyPart(0).writeTo(baos);
-                responOfferee.setText(new String(baos.toByteArray()));
-
-                SignerInformation signerInformation = new SMIMESigned(body).getSignerInfos().getSigners().iterator().next();
-                byte[] ttdnya = signerInformation.getSignature();
-
-                ttdOfferee.setText(sig(ttdnya));
-                offereeCert.checkValidity();
-                boolean hasil = signerInformation.verify(siv);
-                verifikasiTtdOfferee.setText(hasil ? "Pesan dari offeree utuh, tdk termodifikasi" : "termodifikasi");
-                ResponOffereeFragment.newInstance().show(getSupportFragmentManager(), "1");
+                if (pesan != null)
+                    pesan.batal();
+                pesan = CallSynchronous("redaksiPerikatan=" + URLEncoder.encode(redaksiPerikatan, "utf-8"), alamatOfferee.getText().toString());
+                pesan.batasWaktu(BATAS_WAKTU_MDN).kemudian(new Janji.Penerima<PengirimAS2.HasilMDN>() {
+                    @Override
+                    public void berhasil(PengirimAS2.HasilMDN hasil) {
+                        try {
+                            pratinjau.batal();
+                            hashPesan.setText(Base64.toBase64String(hasil.ttd.getContentDigest()));
+                            waktuPenandatanganan.setText(dateFormat.format(hasil.ttd.getSigningTime()));
+                            ttdOfferor.setText(sig(hasil.ttd.getSignature()));
+
+                            responOfferee.setText(hasil.respon);
+                            ttdOfferee.setText(sig(hasil.ttdPenjual));
+                            verifikasiTtdOfferee.setText(hasil.utuh ? "Pesan dari offeree utuh, tdk termodifikasi" : "termodifikasi");
+                            ResponOffereeFragment.newInstance().show(getSupportFragmentManager(), "1");
+                        } catch (Exception ex) {
+                            gagal(ex);
+                        }
+                    }
+
+                    @Override
+                    public void gagal(Exception ex) {
+                        Snackbar.make(mCoordinatorLayout, String.valueOf(ex.getMessage()), Snackbar.LENGTH_LONG).show();
+                        ex.printStackTrace();
+                    }
+                });
             } catch (Exception ex) {
                 Snackbar.make(mCoordinatorLayout, ex.getMessage(), Snackbar.LENGTH_LONG).show();
                 ex.printStackTrace();
@@ -274,29 +271,49 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
-    private String tandatangannyaOfferor(String redaksinya) throws Exception {
-        StringBuilder redaksi = new StringBuilder("Content-Type: application/x-www-form-urlencoded; charset=UTF-8\r\n" +
-                "Content-Transfer-Encoding: binary\r\n\r\n");
-        redaksi.append("redaksiPerikatan=");
-        redaksi.append(URLEncoder.encode(redaksinya, "utf-8"));//"Electronically Stored Information, electronic discovery, Federal Rules of Civil Procedure
-        digestSignedAttr.reset();
-        byte[] digest = digestSignedAttr.digest(redaksi.toString().getBytes("UTF-8"));
-        hashPesan.setText(new String(Base64.encode(digest), "utf8"));
+    @Override
+    protected void onDestroy() {
+        pratinjau.batal();
+        esPratinjau.shutdown();
+        if (pesan != null)
+            pesan.batal();
+        if (pengirim != null)
+            pengirim.tutup();
+        super.onDestroy();
+    }
 
+    private static class Pratinjau {
+        String hash;
+        Date waktu;
+        byte[] ttd;
+    }
+
+    private Pratinjau tandatangannyaOfferor(String redaksinya) throws Exception {
+        //"Electronically Stored Information, electronic discovery, Federal Rules of Civil Procedure
+        //dipanggil dari thread pratinjau, Signature dan MessageDigest-nya milik thread ini sendiri;
+        //header MIME di depan redaksi sudah dicerna, tinggal isi redaksinya
+        DigestCalculator pencerna = kripto.pencernaRedaksi();
+        OutputStream keluaranCerna = pencerna.getOutputStream();
+        keluaranCerna.write(URLEncoder.encode(redaksinya, "utf-8").getBytes("UTF-8"));
+        byte[] digest = pencerna.getDigest();
+        Pratinjau hasil = new Pratinjau();
+        hasil.hash = Base64.toBase64String(digest);
+
+        Map parameters = new HashMap();
+        parameters.put(CMSAttributeTableGenerator.CONTENT_TYPE, CMSObjectIdentifiers.data);
+        parameters.put(CMSAttributeTableGenerator.DIGEST_ALGORITHM_IDENTIFIER, KonteksKripto.SHA512);
+        parameters.put(CMSAttributeTableGenerator.SIGNATURE_ALGORITHM_IDENTIFIER, new AlgorithmIdentifier(PKCSObjectIdentifiers.sha512WithRSAEncryption, DERNull.INSTANCE));
         parameters.put(CMSAttributeTableGenerator.DIGEST, Arrays.clone(digest));
-        AttributeTable signed = sAttrGen.getAttributes(Collections.unmodifiableMap(parameters));
-
-        ASN1Set attrValues = signed.get(CMSAttributes.signingTime).getAttrValues();
-        ASN1Primitive validSigningTime = attrValues.getObjectAt(0).toASN1Primitive();
-        Time signingTime = Time.getInstance(validSigningTime);
-        Date tangPen = signingTime.getDate();
-        waktuPenandatanganan.setText(dateFormat.format(tangPen));
-
-        ASN1Set signedAttr = new DERSet(signed.toASN1EncodableVector());
-        byte[] teks = signedAttr.getEncoded(ASN1Encoding.DER);//"Electronically Stored Information, electronic discovery, Federal Rules of Civil Procedure
-        signature.update(teks, 0, teks.length);
-        byte[] sig = signature.sign();
-        return sig(sig);
+        //signingTime dikodekan per detik, sama dengan yang terbaca kembali dari atributnya
+        long sekarang = System.currentTimeMillis();
+        hasil.waktu = new Date(sekarang - sekarang % 1000);
+        //atribut yang ditandatangani tinggal disalin dari template, hanya waktu dan digest yang diganti
+        byte[] teks = sAttrGen.getEncodedAttributes(Collections.unmodifiableMap(parameters), hasil.waktu);//"Electronically Stored Information, electronic discovery, Federal Rules of Civil Procedure
+        ContentSigner penanda = kripto.penanda();
+        penanda.getOutputStream().write(teks, 0, teks.length);
+        byte[] sig = penanda.getSignature();
+        hasil.ttd = sig;
+        return hasil;
     }
 
     private String sig(byte[] sig) {
@@ -313,77 +330,24 @@ public class MainActivity extends AppCompatActivity {
             throw new Exception("tidak ada internet!");
     }
 
-    public Future<MimeMultipart> CallSynchronous(
+    public Janji<PengirimAS2.HasilMDN> CallSynchronous(
             final String content,
             final String alamatPenjual) {
-        return es.submit(() -> {
-            MimeBodyPart aPart = new MimeBodyPart();
-            aPart.setContent(content, "application/x-www-form-urlencoded; charset=UTF-8");
-            aPart.setHeader("Content-Transfer-Encoding", "binary");
-            MimeMultipart aSignedData = gen.generate(aPart);
-
-            SignerInformation signerInformation = new SMIMESigned(aSignedData).getSignerInfos().getSigners().iterator().next();
-            AttributeTable table = signerInformation.getSignedAttributes();
-
-            ASN1Set attrValues1 = table.get(CMSAttributes.messageDigest).getAttrValues();
-            ASN1Primitive validMessageDigest = attrValues1.getObjectAt(0).toASN1Primitive();
-            DEROctetString signedMessageDigest = (DEROctetString) validMessageDigest;
-            hashPesan.setText(new String(Base64.encode(signedMessageDigest.getOctets()), "utf8"));
-
-            ASN1Set attrValues = table.get(CMSAttributes.signingTime).getAttrValues();
-            ASN1Primitive validSigningTime = attrValues.getObjectAt(0).toASN1Primitive();
-            Time signingTime = Time.getInstance(validSigningTime);
-            Date tangPen = signingTime.getDate();
-            waktuPenandatanganan.setText(dateFormat.format(tangPen));
-
-            MimeBodyPart output = new MimeBodyPart();
-            output.setContent(aSignedData);
-            output.setHeader("Content-Type", aSignedData.getContentType());
-            String from = "dawud_tan@merahputih.id";
-
-            URL urlPenjual = new URL(alamatPenjual);
-            InetAddress alamatIPPenjual = InetAddress.getByName(urlPenjual.getHost());
-            if (alamatIPPenjual.isSiteLocalAddress())
-                throw new RuntimeException("Alamat IP Penjual pribadi, tidak bisa dicapai.");
-            HttpURLConnection con = (HttpURLConnection) urlPenjual.openConnection();
-            con.setRequestMethod("POST");
-            con.setDoInput(true);
-            con.setDoOutput(true);
-            con.setRequestProperty("Connection", "close");
-            con.setRequestProperty("From", from);
-            con.setRequestProperty("AS2-Version", "1.1");
-            con.setRequestProperty("AS2-From", uniqueID);
-            con.setRequestProperty("AS2-To", "mendelsontestAS2");
-            con.setRequestProperty("Subject", "https://s.id/tr1-2");
-            con.setRequestProperty("Message-Id", new StringBuilder("<github-dawud-tan-").append(new SimpleDateFormat("ddMMyyyyHHmmssZ", getCurrentLocale(this)).format(new Date())).append("-").append(new Random().nextLong()).append("@mycompanyAS2_mendelsontestAS2>").toString());
-            con.setRequestProperty("Disposition-Notification-To", from);//ask receiving UA, to issue an MDN receipt
-            con.setRequestProperty("Disposition-Notification-Options",
-                    "signed-receipt-protocol=optional, pkcs7-signature; signed-receipt-micalg=optional, sha512");
-            con.setRequestProperty("Content-Type", output.getContentType().replace("\r\n\r\n", " ").replace("\r\n", " "));
-            con.setRequestProperty("Accept", "multipart/signed");
-            InputStream in = output.getInputStream();
-            ByteArrayOutputStream temp = new ByteArrayOutputStream();
-            final byte[] b = new byte[8192];
-            for (int r; (r = in.read(b)) != -1; ) {
-                temp.write(b, 0, r);
-            }
-            OutputStream os = con.getOutputStream();
-            os.write(temp.toByteArray());
-            os.flush();
-            os.close();
-            return (MimeMultipart) con.getContent();
-        });
+        return pengirim.kirimAsinkron(new PengirimAS2.Penawaran(alamatPenjual, PengirimAS2.AS2_TO_BAWAAN, content), daftarMitra);
     }
 
     private void inisialisasi() {
-        InputStream masukan = MainActivity.class.getResourceAsStream("/offeree.crt");//untuk kunci publik penjual
+        //sertifikat penjual: <filesDir>/mitra/<AS2-To>.crt, penjual bawaan memakai offeree.crt yang dibundel
+        final File direktoriMitra = new File(getFilesDir(), "mitra");
+        daftarMitra = new DaftarMitra(KAPASITAS_MITRA, as2Id -> {
+            File berkas = new File(direktoriMitra, URLEncoder.encode(as2Id, "utf-8") + ".crt");
+            if (berkas.isFile())
+                return new FileInputStream(berkas);
+            if (PengirimAS2.AS2_TO_BAWAAN.equals(as2Id))
+                return MainActivity.class.getResourceAsStream("/offeree.crt");
+            return null;
+        });
         try {
-            offereeCert = PemUtils.decodeCertificate(masukan);
-            Objects.requireNonNull(masukan).close();
-            masukan = null;
-
-            digest = MessageDigest.getInstance("SHA512");
-
             SharedPreferences sharedPref = getPreferences(Context.MODE_PRIVATE);
             if (sharedPref.getBoolean(FIRST, true)) {
                 KeyPairGenerator mKeyPairGenerator = keyPairGenerator();
@@ -397,7 +361,7 @@ public class MainActivity extends AppCompatActivity {
                 uniqueID = UUID.randomUUID().toString();
 
                 sharedPref.edit().putString("uniqueID", uniqueID).commit();
-                String sertifikat = new String(Base64.encode(offerorCert.getEncoded()), "utf8");
+                String sertifikat = Base64.toBase64String(offerorCert.getEncoded());
                 if (daringKah())
                     es.submit(() -> {
                         try {
@@ -439,17 +403,10 @@ public class MainActivity extends AppCompatActivity {
             offerorCert = (X509Certificate) keyStore.getCertificate(KEY_NAME);
             offerorKey = (PrivateKey) keyStore.getKey(KEY_NAME, null);
 
-            siv = new JcaSimpleSignerInfoVerifierBuilder().build(offereeCert.getPublicKey());
-            signature = Signature.getInstance("SHA512withRSA");
-            signature.initSign(offerorKey);
+            kripto = new KonteksKripto(offerorKey, offerorCert);
 
-            SignerInfoGenerator signer = new JcaSimpleSignerInfoGeneratorBuilder()
-                    .build("SHA512withRSA", offerorKey, offerorCert);
-
-            gen = new SMIMESignedGenerator();
-            gen.addSignerInfoGenerator(signer);
-            //secara default, content-transfer-encoding base64
-            gen.setContentTransferEncoding("binary");
+            pengirim = new PengirimAS2(Aplikasi.BATAS_PENGIRIMAN, uniqueID, getCurrentLocale(this), kripto);
+            pengirim.setBatasWaktuKoneksi(BATAS_WAKTU_MDN);
 
         } catch (Exception e) {
             Snackbar.make(mCoordinatorLayout, e.getMessage(), Snackbar.LENGTH_LONG).show();
@@ -457,20 +414,6 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
-    private String getDvimalString(String asal) {
-        StringBuilder sb = new StringBuilder();
-        for (int j = 0; j < asal.length(); j++) {
-            String a = asal.substring(j, j + 1);
-            sb.append(a);
-            sb.append(": ");
-            for (byte b : a.getBytes()) {
-                sb.append(Integer.toBinaryString((b & 0xFF) + 0x100).substring(1));
-            }
-            sb.append("\r\n");
-        }
-        return sb.toString();
-    }
-
     public boolean daringKah() {
         ConnectivityManager manajerKonektivitas = (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
         NetworkInfo jaringanAktif = manajerKonektivitas.getActiveNetworkInfo();
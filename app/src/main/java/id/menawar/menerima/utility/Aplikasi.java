@@ -30,10 +30,18 @@ import android.app.Application;
 import java.net.URLConnection;
 
 public class Aplikasi extends Application {
+    /**
+     * Jumlah penawaran yang paling banyak dikirim bersamaan oleh {@link PengirimAS2}.
+     */
+    public static final int BATAS_PENGIRIMAN = 4;
 
     @Override
     public void onCreate() {
         super.onCreate();
+        //kolam koneksi keep-alive HttpURLConnection bawaan hanya menyimpan 5 koneksi menganggur dan
+        //membaca http.maxConnections sekali saat dipakai pertama, jadi disetel di sini sebelum ada koneksi
+        if (bacaBilangan(System.getProperty("http.maxConnections")) < BATAS_PENGIRIMAN)
+            System.setProperty("http.maxConnections", String.valueOf(BATAS_PENGIRIMAN));
         URLConnection.setContentHandlerFactory(mimetype -> {
             if (mimetype.startsWith("multipart/signed")) {
                 return new MultipartSigned();
@@ -41,4 +49,14 @@ public class Aplikasi extends Application {
             return null;
         });
     }
+
+    private static int bacaBilangan(String nilai) {
+        if (nilai == null)
+            return 0;
+        try {
+            return Integer.parseInt(nilai.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
\ No newline at end of file
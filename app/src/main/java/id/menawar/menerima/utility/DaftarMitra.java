@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import org.spongycastle.cert.X509CertificateHolder;
+import org.spongycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.spongycastle.cms.SignerInformationVerifier;
+import org.spongycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.security.PublicKey;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sertifikat mitra dagang (penjual) yang dikenal, dengan kunci AS2-To / AS2-From mitranya.
+ * <p>
+ * Sertifikat tiap mitra dibaca dari disk saat pertama kali dibutuhkan, lalu sertifikat yang sudah
+ * diurai, kunci publik dan SignerInformationVerifier-nya disimpan dalam LRU berkapasitas tetap,
+ * sehingga verifikasi MDN berikutnya dari mitra yang sama tidak mengurai sertifikat lagi.
+ */
+public class DaftarMitra {
+
+    public interface Pemuat {
+        /**
+         * Buka berkas sertifikat (PEM atau DER) milik mitra, null bila mitra tidak dikenal.
+         */
+        InputStream buka(String as2Id) throws Exception;
+    }
+
+    public static class Mitra {
+        public final String as2Id;
+        public final X509Certificate sertifikat;
+        public final X509CertificateHolder pemegangSertifikat;
+        public final PublicKey kunciPublik;
+        public final SignerInformationVerifier verifier;
+
+        Mitra(String as2Id, X509Certificate sertifikat) throws Exception {
+            this.as2Id = as2Id;
+            this.sertifikat = sertifikat;
+            this.pemegangSertifikat = new JcaX509CertificateHolder(sertifikat);
+            this.kunciPublik = sertifikat.getPublicKey();
+            //verifier ini aman dipakai bersamaan, tiap verify() membuat Signature dan MessageDigest sendiri
+            this.verifier = new JcaSimpleSignerInfoVerifierBuilder().build(kunciPublik);
+        }
+    }
+
+    private final Pemuat pemuat;
+    private final Map<String, Mitra> lru;
+
+    public DaftarMitra(final int kapasitas, Pemuat pemuat) {
+        this.pemuat = pemuat;
+        this.lru = new LinkedHashMap<String, Mitra>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Mitra> eldest) {
+                return size() > kapasitas;
+            }
+        };
+    }
+
+    /**
+     * Mitra dengan AS2-To / AS2-From {@code as2Id}, dimuat dari disk bila belum ada di LRU.
+     */
+    public Mitra cari(String as2Id) throws Exception {
+        Mitra mitra;
+        synchronized (lru) {
+            mitra = lru.get(as2Id);
+        }
+        if (mitra != null)
+            return mitra;
+
+        //pemuatan di luar kunci, dua thread yang memuat mitra yang sama cukup memakai hasil yang pertama masuk
+        mitra = muat(as2Id);
+        synchronized (lru) {
+            Mitra lain = lru.get(as2Id);
+            if (lain != null)
+                return lain;
+            lru.put(as2Id, mitra);
+        }
+        return mitra;
+    }
+
+    /**
+     * Buang mitra dari LRU, misalnya setelah sertifikatnya diganti di disk.
+     */
+    public void lupakan(String as2Id) {
+        synchronized (lru) {
+            lru.remove(as2Id);
+        }
+    }
+
+    private Mitra muat(String as2Id) throws Exception {
+        InputStream masukan = pemuat.buka(as2Id);
+        if (masukan == null)
+            throw new CertificateException("sertifikat mitra " + as2Id + " tidak ditemukan");
+        //CertificateFactory mengenali PEM maupun DER langsung dari stream, tanpa regex dan available()
+        return new Mitra(as2Id, DerUtils.decodeCertificate(new BufferedInputStream(masukan)));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import android.text.Editable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dwimalisasi (representasi biner UTF-8) redaksi penawaran, satu baris per karakter.
+ * <p>
+ * Baris tiap karakter disimpan, sehingga suntingan hanya mengodekan ulang rentang yang
+ * dilaporkan {@code TextWatcher.onTextChanged(s, start, before, count)}, dan tampilannya hanya
+ * diganti pada baris yang berubah. Pasangan surrogate dikodekan sebagai satu code point pada
+ * baris karakter pertamanya, baris karakter keduanya kosong.
+ */
+public final class DwimalBertahap {
+    private static final char[] BIT = new char[256 * 8];
+    private static final byte GANTI = '?';
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            for (int i = 0; i < 8; i++) {
+                BIT[b * 8 + i] = ((b >>> (7 - i)) & 1) != 0 ? '1' : '0';
+            }
+        }
+    }
+
+    private final List<String> baris = new ArrayList<>();
+    private final byte[] utf8 = new byte[4];
+    private int panjang;
+    //offset karakter awal baris barisTerakhir pada hasil render(), suntingan biasanya berdekatan
+    //dengan suntingan sebelumnya sehingga offset cukup digeser sedikit, tidak dijumlahkan dari awal
+    private int barisTerakhir;
+    private int offsetTerakhir;
+
+    /**
+     * Ganti seluruh isi dengan teks yang diberikan.
+     */
+    public void setel(CharSequence teks) {
+        baris.clear();
+        panjang = 0;
+        barisTerakhir = 0;
+        offsetTerakhir = 0;
+        ubah(teks, 0, 0, teks.length(), null);
+    }
+
+    /**
+     * Terapkan suntingan: {@code sebelum} karakter mulai {@code mulai} diganti {@code jumlah}
+     * karakter baru, {@code teks} adalah isi setelah suntingan. Bila {@code keluaran} tidak null,
+     * isinya (hasil {@link #render()} sebelum suntingan) diperbarui hanya pada baris yang berubah.
+     */
+    public void ubah(CharSequence teks, int mulai, int sebelum, int jumlah, Editable keluaran) {
+        //karakter di tepi suntingan bisa saja separuh pasangan surrogate yang baru terbentuk atau terputus
+        int awal = mulai;
+        int akhir = mulai + jumlah;
+        if (awal > 0 && Character.isHighSurrogate(teks.charAt(awal - 1))) {
+            awal--;
+        }
+        if (akhir < teks.length() && Character.isLowSurrogate(teks.charAt(akhir))) {
+            akhir++;
+        }
+
+        //bila keluaran tidak lagi sepanjang hasil render(), misalnya dipulihkan dari state lama, ganti seluruhnya
+        boolean utuh = keluaran != null && keluaran.length() != panjang;
+        int posisi = offsetBaris(awal);
+        List<String> lama = baris.subList(awal, akhir - jumlah + sebelum);
+        int panjangLama = 0;
+        for (String s : lama) {
+            panjangLama += s.length();
+        }
+        lama.clear();
+
+        List<String> baru = new ArrayList<>(akhir - awal);
+        StringBuilder sb = keluaran != null ? new StringBuilder() : null;
+        int panjangBaru = 0;
+        for (int i = awal; i < akhir; i++) {
+            String s = kodekan(teks, i);
+            baru.add(s);
+            panjangBaru += s.length();
+            if (sb != null) {
+                sb.append(s);
+            }
+        }
+        baris.addAll(awal, baru);
+        panjang += panjangBaru - panjangLama;
+
+        if (utuh) {
+            keluaran.replace(0, keluaran.length(), render());
+        } else if (keluaran != null) {
+            keluaran.replace(posisi, posisi + panjangLama, sb);
+        }
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder(panjang);
+        for (int i = 0, n = baris.size(); i < n; i++) {
+            sb.append(baris.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Offset karakter awal baris ke-{@code indeks} pada hasil {@link #render()}. Baris sebelum
+     * {@code indeks} tidak berubah oleh suntingan yang dimulai di sana, sehingga hasilnya tetap
+     * berlaku untuk pemanggilan berikutnya.
+     */
+    private int offsetBaris(int indeks) {
+        while (barisTerakhir < indeks) {
+            offsetTerakhir += baris.get(barisTerakhir++).length();
+        }
+        while (barisTerakhir > indeks) {
+            offsetTerakhir -= baris.get(--barisTerakhir).length();
+        }
+        return offsetTerakhir;
+    }
+
+    private String kodekan(CharSequence teks, int i) {
+        char c = teks.charAt(i);
+        int jumlahChar = 1;
+        int n;
+        if (Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(teks.charAt(i - 1))) {
+            return "";
+        } else if (Character.isHighSurrogate(c) && i + 1 < teks.length() && Character.isLowSurrogate(teks.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, teks.charAt(i + 1));
+            jumlahChar = 2;
+            utf8[0] = (byte) (0xF0 | (cp >>> 18));
+            utf8[1] = (byte) (0x80 | ((cp >>> 12) & 0x3F));
+            utf8[2] = (byte) (0x80 | ((cp >>> 6) & 0x3F));
+            utf8[3] = (byte) (0x80 | (cp & 0x3F));
+            n = 4;
+        } else if (Character.isSurrogate(c)) {
+            utf8[0] = GANTI;
+            n = 1;
+        } else if (c < 0x80) {
+            utf8[0] = (byte) c;
+            n = 1;
+        } else if (c < 0x800) {
+            utf8[0] = (byte) (0xC0 | (c >>> 6));
+            utf8[1] = (byte) (0x80 | (c & 0x3F));
+            n = 2;
+        } else {
+            utf8[0] = (byte) (0xE0 | (c >>> 12));
+            utf8[1] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+            utf8[2] = (byte) (0x80 | (c & 0x3F));
+            n = 3;
+        }
+
+        StringBuilder sb = new StringBuilder(jumlahChar + 2 + n * 8 + 2);
+        sb.append(teks, i, i + jumlahChar);
+        sb.append(": ");
+        for (int j = 0; j < n; j++) {
+            sb.append(BIT, (utf8[j] & 0xFF) * 8, 8);
+        }
+        sb.append("\r\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hasil pekerjaan latar belakang yang akan tersedia nanti, gaya CompletionStage sederhana
+ * (CompletableFuture baru ada sejak API 24).
+ * <p>
+ * Hasil akhir atau galatnya hanya disampaikan sekali, di thread UI, ke penerima yang dipasang
+ * lewat {@link #kemudian(Penerima)}. Janji yang dibatalkan tidak menyampaikan apa pun.
+ */
+public class Janji<T> {
+
+    public interface Penerima<T> {
+        void berhasil(T hasil);
+
+        void gagal(Exception galat);
+    }
+
+    private final Handler utama = new Handler(Looper.getMainLooper());
+    private Future<?> tugas;
+    private Runnable pengawasWaktu;
+    private boolean selesai;
+    private boolean dibatalkan;
+    private boolean disampaikan;
+    private T hasil;
+    private Exception galat;
+    private Penerima<T> penerima;
+
+    synchronized void setTugas(Future<?> tugas) {
+        this.tugas = tugas;
+        if (selesai)
+            tugas.cancel(true);
+    }
+
+    void selesaikan(T hasil) {
+        akhiri(hasil, null);
+    }
+
+    void gagalkan(Exception galat) {
+        akhiri(null, galat);
+    }
+
+    /**
+     * Pasang penerima hasil, menggantikan penerima sebelumnya. Tidak berpengaruh pada janji yang
+     * sudah dibatalkan.
+     */
+    public Janji<T> kemudian(Penerima<T> penerima) {
+        boolean sudah;
+        synchronized (this) {
+            if (dibatalkan)
+                return this;
+            this.penerima = penerima;
+            sudah = selesai;
+        }
+        if (sudah)
+            sampaikan(penerima);
+        return this;
+    }
+
+    /**
+     * Gagalkan dengan {@link TimeoutException} dan hentikan pekerjaannya bila belum selesai dalam
+     * {@code milidetik}.
+     */
+    public Janji<T> batasWaktu(long milidetik) {
+        Runnable pengawas = () -> {
+            akhiri(null, new TimeoutException("tidak ada respon dalam " + milidetik + " ms"));
+            hentikanTugas();
+        };
+        synchronized (this) {
+            if (selesai)
+                return this;
+            pengawasWaktu = pengawas;
+        }
+        utama.postDelayed(pengawas, milidetik);
+        return this;
+    }
+
+    public void batal() {
+        synchronized (this) {
+            // tetap ditandai walau pekerjaannya sudah selesai: penyampaian yang sudah di-post
+            // ke thread UI memeriksa tanda ini sebelum memanggil penerima
+            dibatalkan = true;
+            penerima = null;
+            if (selesai)
+                return;
+            selesai = true;
+        }
+        hapusPengawasWaktu();
+        hentikanTugas();
+    }
+
+    public synchronized boolean isSelesai() {
+        return selesai;
+    }
+
+    private void akhiri(T hasil, Exception galat) {
+        Penerima<T> p;
+        synchronized (this) {
+            if (selesai)
+                return;
+            selesai = true;
+            this.hasil = hasil;
+            this.galat = galat;
+            p = penerima;
+        }
+        hapusPengawasWaktu();
+        if (p != null)
+            sampaikan(p);
+    }
+
+    private void sampaikan(Penerima<T> p) {
+        utama.post(() -> {
+            synchronized (this) {
+                if (dibatalkan || disampaikan || penerima != p)
+                    return;
+                disampaikan = true;
+            }
+            if (galat == null)
+                p.berhasil(hasil);
+            else
+                p.gagal(galat);
+        });
+    }
+
+    private void hapusPengawasWaktu() {
+        Runnable pengawas;
+        synchronized (this) {
+            pengawas = pengawasWaktu;
+            pengawasWaktu = null;
+        }
+        if (pengawas != null)
+            utama.removeCallbacks(pengawas);
+    }
+
+    private void hentikanTugas() {
+        Future<?> t;
+        synchronized (this) {
+            t = tugas;
+        }
+        if (t != null)
+            t.cancel(true);
+    }
+}
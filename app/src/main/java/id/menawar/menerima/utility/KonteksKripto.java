@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import org.spongycastle.asn1.DERNull;
+import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.cert.X509CertificateHolder;
+import org.spongycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.spongycastle.cms.SignerInfoGeneratorBuilder;
+import org.spongycastle.mail.smime.SMIMESignedGenerator;
+import org.spongycastle.operator.ContentSigner;
+import org.spongycastle.operator.DigestCalculator;
+import org.spongycastle.operator.DigestCalculatorProvider;
+import org.spongycastle.operator.OperatorCreationException;
+import org.spongycastle.operator.SnapshotDigestCalculator;
+import org.spongycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.spongycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.spongycastle.util.Strings;
+
+import java.io.IOException;
+import java.security.PrivateKey;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+
+/**
+ * Kumpulan objek kriptografi milik offeror, satu set per thread.
+ * <p>
+ * Signature dan MessageDigest tidak aman dipakai bersamaan dari beberapa thread, jadi tiap thread
+ * (UI, pratinjau, pekerja pengirim) mendapat ContentSigner, DigestCalculator dan SMIMESignedGenerator
+ * sendiri. Semuanya dibuat sekali per thread lalu dipakai ulang, sehingga pencarian provider JCA
+ * tidak diulang untuk setiap tanda tangan.
+ */
+public class KonteksKripto {
+    public static final String ALGORITMA_TTD = "SHA512withRSA";
+    public static final AlgorithmIdentifier SHA512 = new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha512, DERNull.INSTANCE);
+    /**
+     * Header MIME dan nama field yang mengawali setiap redaksi penawaran, sebelum isi redaksinya.
+     */
+    public static final String AWALAN_REDAKSI = "Content-Type: application/x-www-form-urlencoded; charset=UTF-8\r\n" +
+            "Content-Transfer-Encoding: binary\r\n\r\n" +
+            "redaksiPerikatan=";
+    private static final byte[] AWALAN_REDAKSI_BYTE = Strings.toUTF8ByteArray(AWALAN_REDAKSI);
+
+    private static class Konteks {
+        ContentSigner penanda;
+        SnapshotDigestCalculator awalanRedaksi;
+        boolean tanpaSnapshot;
+        SMIMESignedGenerator generator;
+    }
+
+    private final PrivateKey kunci;
+    private final X509CertificateHolder sertifikat;
+    private final DigestCalculatorProvider penyediaDigest = new JcaDigestCalculatorProviderBuilder().build();
+    private final ThreadLocal<Konteks> konteks = new ThreadLocal<Konteks>() {
+        @Override
+        protected Konteks initialValue() {
+            return new Konteks();
+        }
+    };
+
+    public KonteksKripto(PrivateKey kunci, X509Certificate sertifikat) throws CertificateEncodingException {
+        this.kunci = kunci;
+        this.sertifikat = new JcaX509CertificateHolder(sertifikat);
+    }
+
+    /**
+     * ContentSigner SHA512withRSA milik thread pemanggil.
+     */
+    public ContentSigner penanda() throws OperatorCreationException {
+        Konteks k = konteks.get();
+        if (k.penanda == null)
+            k.penanda = new JcaContentSignerBuilder(ALGORITMA_TTD).build(kunci);
+        return k.penanda;
+    }
+
+    /**
+     * DigestCalculator SHA-512 baru yang sudah mencerna {@link #AWALAN_REDAKSI}, tinggal ditulisi isi
+     * redaksinya.
+     * <p>
+     * Awalan dicerna sekali per thread, lalu tiap redaksi mulai dari salinan keadaan digest itu. Bila
+     * provider tidak bisa menyalin keadaan MessageDigest, awalan dicerna ulang untuk setiap redaksi.
+     */
+    public DigestCalculator pencernaRedaksi() throws OperatorCreationException, IOException {
+        Konteks k = konteks.get();
+        if (!k.tanpaSnapshot) {
+            try {
+                if (k.awalanRedaksi == null) {
+                    SnapshotDigestCalculator awalan = (SnapshotDigestCalculator) penyediaDigest.get(SHA512);
+                    awalan.getOutputStream().write(AWALAN_REDAKSI_BYTE);
+                    k.awalanRedaksi = awalan;
+                }
+                return k.awalanRedaksi.snapshot();
+            } catch (OperatorCreationException e) {
+                k.tanpaSnapshot = true;
+                k.awalanRedaksi = null;
+            }
+        }
+        DigestCalculator pencerna = penyediaDigest.get(SHA512);
+        pencerna.getOutputStream().write(AWALAN_REDAKSI_BYTE);
+        return pencerna;
+    }
+
+    /**
+     * SMIMESignedGenerator milik thread pemanggil, dengan ContentSigner-nya sendiri agar sisa data
+     * tanda tangan yang gagal di satu jalur tidak ikut ke jalur lain.
+     */
+    public SMIMESignedGenerator generator() throws OperatorCreationException {
+        Konteks k = konteks.get();
+        if (k.generator == null) {
+            SMIMESignedGenerator gen = new SMIMESignedGenerator();
+            gen.addSignerInfoGenerator(new SignerInfoGeneratorBuilder(penyediaDigest)
+                    .build(new JcaContentSignerBuilder(ALGORITMA_TTD).build(kunci), sertifikat));
+            //secara default, content-transfer-encoding base64
+            gen.setContentTransferEncoding("binary");
+            k.generator = gen;
+        }
+        return k.generator;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import org.spongycastle.cms.CMSException;
+import org.spongycastle.cms.CMSSignedData;
+import org.spongycastle.cms.SignerInformation;
+import org.spongycastle.cms.SignerInformationVerifier;
+import org.spongycastle.mail.smime.util.CRLFOutputStream;
+import org.spongycastle.operator.DigestCalculator;
+import org.spongycastle.operator.DigestCalculatorProvider;
+import org.spongycastle.operator.OperatorCreationException;
+import org.spongycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.InternetHeaders;
+import javax.mail.internet.MimeUtility;
+
+/**
+ * MDN {@code multipart/signed} yang diurai langsung dari stream respon.
+ * <p>
+ * Bagian pertama (laporan MDN) di-digest sambil dibaca dan hanya awalnya yang disimpan untuk
+ * ditampilkan, hanya bagian {@code application/pkcs7-signature} yang diurai menjadi ASN.1, dan
+ * tanda tangannya diverifikasi terhadap digest yang sudah dihitung itu.
+ */
+public class MDNTertandatangan {
+    /**
+     * Panjang maksimal laporan MDN yang disimpan untuk ditampilkan, sisanya tetap di-digest.
+     */
+    public static final int BATAS_RESPON = 64 * 1024;
+
+    private static final DigestCalculatorProvider PENYEDIA_DIGEST = new JcaDigestCalculatorProviderBuilder().build();
+
+    private final String respon;
+    private final boolean terpotong;
+    private final CMSSignedData tandaTangan;
+
+    private MDNTertandatangan(String respon, boolean terpotong, CMSSignedData tandaTangan) {
+        this.respon = respon;
+        this.terpotong = terpotong;
+        this.tandaTangan = tandaTangan;
+    }
+
+    /**
+     * Urai respon {@code multipart/signed} dari {@code masukan}. Stream dibaca sampai pembatas penutup,
+     * epilog sesudahnya dibiarkan.
+     */
+    public static MDNTertandatangan baca(InputStream masukan, String contentType) throws IOException {
+        try {
+            ContentType ct = new ContentType(contentType);
+            if (!ct.match("multipart/signed"))
+                throw new IOException("respon penjual bukan multipart/signed: " + contentType);
+            String boundary = ct.getParameter("boundary");
+            if (boundary == null)
+                throw new IOException("multipart/signed tanpa boundary");
+            String micalg = ct.getParameter("micalg");
+            if (micalg != null && !micalg.equalsIgnoreCase("sha-512") && !micalg.equalsIgnoreCase("sha512"))
+                throw new IOException("micalg " + micalg + " tidak didukung");
+
+            PembacaMultipart pembaca = new PembacaMultipart(masukan, boundary);
+            if (!pembaca.bagianBerikutnya())
+                throw new IOException("multipart/signed tanpa bagian isi");
+
+            //bagian pertama: header dan isinya di-digest dalam bentuk kanonis (CRLF), seperti CMSProcessableBodyPartInbound
+            DigestCalculator pencerna = PENYEDIA_DIGEST.get(KonteksKripto.SHA512);
+            OutputStream kanonis = new CRLFOutputStream(pencerna.getOutputStream());
+            ByteArrayOutputStream awalRespon = new ByteArrayOutputStream();
+            boolean terpotong = false;
+            InputStream isi = pembaca.isiBagian();
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = isi.read(buf)) != -1) {
+                kanonis.write(buf, 0, n);
+                int simpan = Math.min(n, BATAS_RESPON - awalRespon.size());
+                if (simpan > 0)
+                    awalRespon.write(buf, 0, simpan);
+                terpotong |= simpan < n;
+            }
+            kanonis.close();
+            byte[] digest = pencerna.getDigest();
+
+            if (!pembaca.bagianBerikutnya())
+                throw new IOException("multipart/signed tanpa bagian tanda tangan");
+            InputStream bagianTtd = pembaca.isiBagian();
+            InternetHeaders header = new InternetHeaders(bagianTtd);
+            String jenis = header.getHeader("Content-Type", null);
+            if (jenis == null || !(new ContentType(jenis).match("application/pkcs7-signature")
+                    || new ContentType(jenis).match("application/x-pkcs7-signature")))
+                throw new IOException("bagian kedua bukan application/pkcs7-signature: " + jenis);
+            String cte = header.getHeader("Content-Transfer-Encoding", null);
+            InputStream der = cte == null ? bagianTtd : MimeUtility.decode(bagianTtd, cte.trim());
+
+            CMSSignedData tandaTangan = new CMSSignedData(
+                    Collections.singletonMap(KonteksKripto.SHA512.getAlgorithm().getId(), digest), der);
+            return new MDNTertandatangan(teksRespon(awalRespon.toByteArray()), terpotong, tandaTangan);
+        } catch (MessagingException | CMSException | OperatorCreationException e) {
+            throw new IOException("MDN tidak bisa diurai: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ubah awal laporan MDN menjadi teks dengan charset dari Content-Type bagiannya, atau US-ASCII
+     * bila tidak disebut (RFC 2045) maupun tidak dikenal.
+     */
+    private static String teksRespon(byte[] awal) {
+        Charset charset = Charset.forName("US-ASCII");
+        try {
+            String jenis = new InternetHeaders(new ByteArrayInputStream(awal)).getHeader("Content-Type", null);
+            String nama = jenis == null ? null : new ContentType(jenis).getParameter("charset");
+            if (nama != null)
+                charset = Charset.forName(MimeUtility.javaCharset(nama.trim()));
+        } catch (MessagingException | IllegalArgumentException e) {
+            //header rusak atau charset tidak dikenal, tetap US-ASCII
+        }
+        return new String(awal, charset);
+    }
+
+    /**
+     * Header dan isi laporan MDN, paling panjang {@link #BATAS_RESPON} byte.
+     */
+    public String getRespon() {
+        return respon;
+    }
+
+    public boolean isTerpotong() {
+        return terpotong;
+    }
+
+    public SignerInformation getPenandatangan() {
+        return tandaTangan.getSignerInfos().getSigners().iterator().next();
+    }
+
+    public boolean verifikasi(SignerInformationVerifier verifier) throws CMSException {
+        return getPenandatangan().verify(verifier);
+    }
+}
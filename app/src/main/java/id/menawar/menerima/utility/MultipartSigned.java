@@ -29,19 +29,13 @@ import java.io.IOException;
 import java.net.ContentHandler;
 import java.net.URLConnection;
 
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMultipart;
-import javax.mail.util.ByteArrayDataSource;
-
 public class MultipartSigned extends ContentHandler {
 
+    /**
+     * Respon diurai sambil dibaca, tidak disangga seluruhnya ke ByteArrayDataSource.
+     */
     @Override
     public Object getContent(URLConnection urlc) throws IOException {
-        try {
-            return new MimeMultipart(new ByteArrayDataSource(urlc.getInputStream(), urlc.getContentType()));
-        } catch (MessagingException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return MDNTertandatangan.baca(urlc.getInputStream(), urlc.getContentType());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pembaca multipart MIME yang memotong stream menjadi bagian-bagian sesuai boundary, tanpa
+ * pernah menyangga lebih dari satu jendela berukuran tetap.
+ * <p>
+ * Isi sebuah bagian adalah byte di antara baris pembatas dan CRLF sebelum pembatas berikutnya,
+ * persis seperti yang dihitung digest-nya oleh pengirim multipart/signed (RFC 1847).
+ */
+public class PembacaMultipart {
+    private static final int UKURAN_JENDELA = 8192;
+
+    private final InputStream masukan;
+    private final byte[] pembatas;
+    private final byte[] jendela;
+    private int awal, akhir;
+    private boolean habis;
+
+    public PembacaMultipart(InputStream masukan, String boundary) {
+        this.masukan = masukan;
+        this.pembatas = ("\r\n--" + boundary).getBytes();
+        this.jendela = new byte[Math.max(UKURAN_JENDELA, pembatas.length * 2)];
+        //pembatas pertama boleh berada tepat di awal stream, tanpa CRLF di depannya
+        jendela[0] = '\r';
+        jendela[1] = '\n';
+        akhir = 2;
+    }
+
+    /**
+     * Lewati preamble, atau sisa bagian yang sedang dibaca, lalu pembatas sesudahnya.
+     *
+     * @return false bila yang ditemui pembatas penutup atau stream habis.
+     */
+    public boolean bagianBerikutnya() throws IOException {
+        byte[] buang = new byte[512];
+        while (baca(buang, 0, buang.length) != -1) {
+        }
+        if (!isi(pembatas.length) || !diPembatas(awal))
+            return false;
+        awal += pembatas.length;
+
+        if (isi(2) && jendela[awal] == '-' && jendela[awal + 1] == '-')
+            return false;
+        //transport padding sampai akhir baris pembatas
+        while (true) {
+            if (!isi(1))
+                return false;
+            if (jendela[awal++] == '\n')
+                return true;
+        }
+    }
+
+    /**
+     * Stream isi bagian yang sedang dibaca, berakhir tepat sebelum pembatas berikutnya.
+     */
+    public InputStream isiBagian() {
+        return new InputStream() {
+            private final byte[] satu = new byte[1];
+
+            @Override
+            public int read() throws IOException {
+                return baca(satu, 0, 1) == -1 ? -1 : satu[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return baca(b, off, len);
+            }
+        };
+    }
+
+    private int baca(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        while (true) {
+            isi(pembatas.length);
+            int tersedia = akhir - awal;
+            int posisi = cari();
+            int aman;
+            if (posisi >= 0)
+                aman = posisi - awal;
+            else if (habis)
+                aman = tersedia;
+            else
+                //byte di ujung jendela bisa jadi awal pembatas yang belum terbaca seluruhnya
+                aman = tersedia - (pembatas.length - 1);
+
+            if (aman > 0) {
+                int n = Math.min(aman, len);
+                System.arraycopy(jendela, awal, b, off, n);
+                awal += n;
+                return n;
+            }
+            if (posisi >= 0 || habis)
+                return -1;
+            isi(tersedia + 1);
+        }
+    }
+
+    private int cari() {
+        int batas = akhir - pembatas.length;
+        for (int i = awal; i <= batas; i++) {
+            if (jendela[i] == '\r' && diPembatas(i))
+                return i;
+        }
+        return -1;
+    }
+
+    private boolean diPembatas(int i) {
+        for (int j = 0; j < pembatas.length; j++) {
+            if (jendela[i + j] != pembatas[j])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Usahakan paling sedikit {@code n} byte tersedia di jendela.
+     */
+    private boolean isi(int n) throws IOException {
+        if (akhir - awal >= n)
+            return true;
+        if (awal > 0) {
+            System.arraycopy(jendela, awal, jendela, 0, akhir - awal);
+            akhir -= awal;
+            awal = 0;
+        }
+        while (!habis && akhir < n) {
+            int dibaca = masukan.read(jendela, akhir, jendela.length - akhir);
+            if (dibaca == -1)
+                habis = true;
+            else
+                akhir += dibaca;
+        }
+        return akhir - awal >= n;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import org.spongycastle.cms.SignerInformation;
+import org.spongycastle.mail.smime.SMIMESignedResult;
+
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMultipart;
+
+/**
+ * Mengirim penawaran bertanda tangan lewat AS2 dan menerima MDN-nya.
+ * <p>
+ * Penawaran ditandatangani dan dikirim oleh sekumpulan pekerja berukuran tetap, tiap thread pekerja
+ * memakai SMIMESignedGenerator (beserta Signature dan MessageDigest-nya) sendiri dari {@link KonteksKripto}, dan koneksi HTTP
+ * dibiarkan keep-alive supaya penawaran ke penjual yang sama tidak mengulang jabat tangan TCP+TLS.
+ */
+public class PengirimAS2 {
+    public static final String AS2_TO_BAWAAN = "mendelsontestAS2";
+    private static final String FROM = "dawud_tan@merahputih.id";
+
+    public static class Penawaran {
+        public final String alamatPenjual;
+        public final String as2To;
+        public final String konten;
+
+        public Penawaran(String alamatPenjual, String as2To, String konten) {
+            this.alamatPenjual = alamatPenjual;
+            this.as2To = as2To;
+            this.konten = konten;
+        }
+    }
+
+    public static class Hasil {
+        public final Penawaran penawaran;
+        public final SMIMESignedResult ttd;
+        /**
+         * MDN yang sudah diurai, null bila respon penjual bukan multipart/signed.
+         */
+        public final MDNTertandatangan mdn;
+        /**
+         * Header AS2-From pada respon, null bila penjual tidak mengirimnya.
+         */
+        public final String as2FromPenjual;
+
+        Hasil(Penawaran penawaran, SMIMESignedResult ttd, MDNTertandatangan mdn, String as2FromPenjual) {
+            this.penawaran = penawaran;
+            this.ttd = ttd;
+            this.mdn = mdn;
+            this.as2FromPenjual = as2FromPenjual;
+        }
+    }
+
+    /**
+     * Putusan akhir atas MDN dari penjual, sudah diverifikasi.
+     */
+    public static class HasilMDN {
+        public final Penawaran penawaran;
+        public final SMIMESignedResult ttd;
+        public final String respon;
+        public final byte[] ttdPenjual;
+        public final boolean utuh;
+
+        HasilMDN(Penawaran penawaran, SMIMESignedResult ttd, String respon, byte[] ttdPenjual, boolean utuh) {
+            this.penawaran = penawaran;
+            this.ttd = ttd;
+            this.respon = respon;
+            this.ttdPenjual = ttdPenjual;
+            this.utuh = utuh;
+        }
+    }
+
+    /**
+     * Dipanggil dari thread pekerja begitu respon sebuah penawaran tiba, tepat salah satu dari
+     * {@code hasil} atau {@code galat} yang tidak null.
+     */
+    public interface Pendengar {
+        void selesai(Penawaran penawaran, Hasil hasil, Exception galat);
+    }
+
+    private final ExecutorService pekerja;
+    private final String as2From;
+    private final Locale locale;
+    private final KonteksKripto kripto;
+    private volatile int batasWaktuKoneksi;
+
+    /**
+     * Batas kolam koneksi keep-alive tidak diatur di sini, kolam bawaan HttpURLConnection hanya membaca
+     * {@code http.maxConnections} sekali; {@link Aplikasi} menyetelnya saat aplikasi mulai.
+     *
+     * @param batasKonkurensi jumlah penawaran yang paling banyak ditandatangani dan dikirim bersamaan.
+     */
+    public PengirimAS2(int batasKonkurensi, String as2From, Locale locale, KonteksKripto kripto) {
+        this.pekerja = Executors.newFixedThreadPool(batasKonkurensi);
+        this.as2From = as2From;
+        this.locale = locale;
+        this.kripto = kripto;
+    }
+
+    public Future<Hasil> kirim(final Penawaran penawaran, final Pendengar pendengar) {
+        return pekerja.submit(() -> {
+            Hasil hasil;
+            try {
+                hasil = kirimSinkron(penawaran);
+            } catch (Exception e) {
+                if (pendengar != null)
+                    pendengar.selesai(penawaran, null, e);
+                throw e;
+            }
+            if (pendengar != null)
+                pendengar.selesai(penawaran, hasil, null);
+            return hasil;
+        });
+    }
+
+    /**
+     * Kirim sekumpulan penawaran, misalnya daftar harga ke banyak penjual sekaligus. Hasil tiap
+     * penawaran disampaikan ke {@code pendengar} sesuai urutan tibanya respon, Future yang dikembalikan
+     * sesuai urutan {@code daftar}.
+     */
+    public List<Future<Hasil>> kirimBatch(List<Penawaran> daftar, Pendengar pendengar) {
+        List<Future<Hasil>> hasil = new ArrayList<>(daftar.size());
+        for (Penawaran penawaran : daftar) {
+            hasil.add(kirim(penawaran, pendengar));
+        }
+        return hasil;
+    }
+
+    /**
+     * Tandatangani, kirim, lalu urai dan verifikasi MDN {@code multipart/signed} dari penjual, semuanya
+     * di thread pekerja. Sertifikat penjual diambil dari {@code daftarMitra} berdasarkan AS2-To penawaran.
+     * Hanya putusan akhirnya yang disampaikan ke thread UI.
+     */
+    public Janji<HasilMDN> kirimAsinkron(final Penawaran penawaran, final DaftarMitra daftarMitra) {
+        final Janji<HasilMDN> janji = new Janji<>();
+        janji.setTugas(pekerja.submit(() -> {
+            try {
+                janji.selesaikan(verifikasi(kirimSinkron(penawaran), daftarMitra));
+            } catch (Exception e) {
+                janji.gagalkan(e);
+            }
+        }));
+        return janji;
+    }
+
+    /**
+     * Batas waktu connect dan read tiap koneksi dalam milidetik, 0 berarti tanpa batas.
+     */
+    public void setBatasWaktuKoneksi(int milidetik) {
+        this.batasWaktuKoneksi = milidetik;
+    }
+
+    public void tutup() {
+        pekerja.shutdown();
+    }
+
+    /**
+     * Tandatangani dan kirim satu penawaran di thread pemanggil.
+     */
+    public Hasil kirimSinkron(Penawaran penawaran) throws Exception {
+        MimeBodyPart aPart = new MimeBodyPart();
+        aPart.setContent(penawaran.konten, "application/x-www-form-urlencoded; charset=UTF-8");
+        aPart.setHeader("Content-Transfer-Encoding", "binary");
+        //tanda tangan dihitung sekali, saat bagian signature ditulis ke koneksi
+        SMIMESignedResult hasilTtd = kripto.generator().generateWithResult(aPart);
+        MimeMultipart aSignedData = hasilTtd.getMultipart();
+
+        MimeBodyPart output = new MimeBodyPart();
+        output.setContent(aSignedData);
+        output.setHeader("Content-Type", aSignedData.getContentType());
+
+        URL urlPenjual = new URL(penawaran.alamatPenjual);
+        InetAddress alamatIPPenjual = InetAddress.getByName(urlPenjual.getHost());
+        if (alamatIPPenjual.isSiteLocalAddress())
+            throw new RuntimeException("Alamat IP Penjual pribadi, tidak bisa dicapai.");
+        HttpURLConnection con = (HttpURLConnection) urlPenjual.openConnection();
+        con.setConnectTimeout(batasWaktuKoneksi);
+        con.setReadTimeout(batasWaktuKoneksi);
+        con.setRequestMethod("POST");
+        con.setDoInput(true);
+        con.setDoOutput(true);
+        con.setRequestProperty("From", FROM);
+        con.setRequestProperty("AS2-Version", "1.1");
+        con.setRequestProperty("AS2-From", as2From);
+        con.setRequestProperty("AS2-To", penawaran.as2To);
+        con.setRequestProperty("Subject", "https://s.id/tr1-2");
+        con.setRequestProperty("Message-Id", new StringBuilder("<github-dawud-tan-").append(new SimpleDateFormat("ddMMyyyyHHmmssZ", locale).format(new Date())).append("-").append(new Random().nextLong()).append("@mycompanyAS2_").append(penawaran.as2To).append(">").toString());
+        con.setRequestProperty("Disposition-Notification-To", FROM);//ask receiving UA, to issue an MDN receipt
+        con.setRequestProperty("Disposition-Notification-Options",
+                "signed-receipt-protocol=optional, pkcs7-signature; signed-receipt-micalg=optional, sha512");
+        con.setRequestProperty("Content-Type", output.getContentType().replace("\r\n\r\n", " ").replace("\r\n", " "));
+        con.setRequestProperty("Accept", "multipart/signed");
+        //panjang pesan bertanda tangan baru diketahui setelah ditulis, jadi kirim secara chunked
+        //agar ContentSigner menulis langsung ke koneksi tanpa penyangga seukuran pesan
+        con.setChunkedStreamingMode(0);
+        OutputStream os = new BufferedOutputStream(con.getOutputStream(), 8192);
+        output.getDataHandler().writeTo(os);
+        os.flush();
+        os.close();
+
+        Object konten = con.getContent();
+        MDNTertandatangan mdn = konten instanceof MDNTertandatangan ? (MDNTertandatangan) konten : null;
+        String as2FromPenjual = con.getHeaderField("AS2-From");
+        //respon dibaca habis lalu ditutup, bukan disconnect(), agar koneksinya kembali ke kolam
+        InputStream in = con.getInputStream();
+        byte[] sisa = new byte[512];
+        while (in.read(sisa) != -1) {
+        }
+        in.close();
+        return new Hasil(penawaran, hasilTtd, mdn, as2FromPenjual);
+    }
+
+    private HasilMDN verifikasi(Hasil hasil, DaftarMitra daftarMitra) throws Exception {
+        if (hasil.mdn == null)
+            throw new Exception("respon penjual bukan multipart/signed");
+        String as2To = hasil.penawaran.as2To;
+        if (hasil.as2FromPenjual != null && !as2To.equals(tanpaKutip(hasil.as2FromPenjual)))
+            throw new Exception("MDN dari " + hasil.as2FromPenjual + ", bukan dari " + as2To);
+        DaftarMitra.Mitra penjual = daftarMitra.cari(as2To);
+        //digest laporan MDN sudah dihitung saat respon dibaca, tinggal memeriksa tanda tangannya
+        SignerInformation signerInformation = hasil.mdn.getPenandatangan();
+        penjual.sertifikat.checkValidity();
+        boolean utuh = signerInformation.verify(penjual.verifier);
+        return new HasilMDN(hasil.penawaran, hasil.ttd, hasil.mdn.getRespon(), signerInformation.getSignature(), utuh);
+    }
+
+    /**
+     * Nama AS2 yang mengandung spasi dikirim dalam tanda kutip (RFC 4130 bagian 6.2).
+     */
+    private static String tanpaKutip(String as2Id) {
+        String id = as2Id.trim();
+        if (id.length() >= 2 && id.charAt(0) == '"' && id.charAt(id.length() - 1) == '"')
+            return id.substring(1, id.length() - 1);
+        return id;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2017 Dawud Tan
+ * All rights reserved.
+ *
+ * This code is licensed under the MIT License.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package id.menawar.menerima.utility;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pratinjau yang dihitung di luar thread UI. Permintaan yang datang beruntun dalam rentang jeda
+ * digabung menjadi satu, pekerjaan yang sudah basi karena ada masukan lebih baru dibatalkan, dan
+ * hanya hasil dari masukan terakhir yang dikirim balik ke thread UI.
+ * <p>
+ * {@link #minta(String)} dan {@link #batal()} harus dipanggil dari thread UI.
+ */
+public class PratinjauTertunda<T> {
+
+    public interface Tugas<T> {
+        T hitung(String masukan) throws Exception;
+    }
+
+    public interface Penerima<T> {
+        void terima(T hasil);
+
+        void gagal(Exception e);
+    }
+
+    private final Handler utama = new Handler(Looper.getMainLooper());
+    private final AtomicLong generasi = new AtomicLong();
+    private final ExecutorService pelaksana;
+    private final long jedaMs;
+    private final Tugas<T> tugas;
+    private final Penerima<T> penerima;
+    private Runnable tertunda;
+    private Future<?> berjalan;
+
+    public PratinjauTertunda(ExecutorService pelaksana, long jedaMs, Tugas<T> tugas, Penerima<T> penerima) {
+        this.pelaksana = pelaksana;
+        this.jedaMs = jedaMs;
+        this.tugas = tugas;
+        this.penerima = penerima;
+    }
+
+    public void minta(final String masukan) {
+        final long gen = generasi.incrementAndGet();
+        hentikan();
+        tertunda = () -> {
+            tertunda = null;
+            berjalan = pelaksana.submit(() -> jalankan(gen, masukan));
+        };
+        utama.postDelayed(tertunda, jedaMs);
+    }
+
+    public void batal() {
+        generasi.incrementAndGet();
+        hentikan();
+    }
+
+    private void hentikan() {
+        if (tertunda != null) {
+            utama.removeCallbacks(tertunda);
+            tertunda = null;
+        }
+        //tugas yang sudah jalan tidak diinterupsi, panggilan AndroidKeyStore dibiarkan selesai
+        //dan hasilnya dibuang karena generasinya sudah basi
+        if (berjalan != null) {
+            berjalan.cancel(false);
+            berjalan = null;
+        }
+    }
+
+    private void jalankan(final long gen, String masukan) {
+        if (gen != generasi.get())
+            return;
+        try {
+            final T hasil = tugas.hitung(masukan);
+            utama.post(() -> {
+                if (gen == generasi.get())
+                    penerima.terima(hasil);
+            });
+        } catch (final Exception e) {
+            utama.post(() -> {
+                if (gen == generasi.get())
+                    penerima.gagal(e);
+            });
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.spongycastle.asn1;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of one BER/DER encoded object held in a ByteBuffer - heap, direct or
+ * a memory mapped file. Only the identifier and length octets are decoded, the contents
+ * are returned as slices of the underlying buffer and an ASN1Primitive is only built
+ * when asked for.
+ * <p>
+ * The view reads the buffer with absolute gets, so the position of the buffer it was
+ * created from is never changed, and a view may be shared between threads as long as
+ * nothing writes to the underlying buffer.
+ * <pre>
+ *     MappedByteBuffer archive = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+ *     for (Iterator it = ASN1BufferView.getObjects(archive); it.hasNext();)
+ *     {
+ *         ASN1BufferView contentInfo = (ASN1BufferView)it.next();
+ *         ...
+ *     }
+ * </pre>
+ */
+public class ASN1BufferView
+        implements ASN1Encodable, BERTags {
+    private final ByteBuffer buf;
+    private final int start;
+    private final int tag;
+    private final int tagNo;
+    private final int contentStart;
+    private final int contentLength;
+    private final int end;
+
+    private volatile ASN1Primitive primitive;
+
+    private ASN1BufferView(ByteBuffer buf, int start, int tag, int tagNo, int contentStart, int contentLength, int end) {
+        this.buf = buf;
+        this.start = start;
+        this.tag = tag;
+        this.tagNo = tagNo;
+        this.contentStart = contentStart;
+        this.contentLength = contentLength;
+        this.end = end;
+    }
+
+    /**
+     * Return a view of the object starting at the buffer's current position.
+     *
+     * @param buf buffer containing the encoding, its position and limit are left untouched.
+     * @return a view of the object.
+     * @throws IOException if the identifier or length octets are malformed or truncated.
+     */
+    public static ASN1BufferView getInstance(ByteBuffer buf)
+            throws IOException {
+        return read(buf.duplicate(), buf.position(), buf.limit());
+    }
+
+    /**
+     * Return an iterator over the objects stored back to back between the buffer's position
+     * and limit, such as an archive of ContentInfo structures. A malformed entry ends the
+     * iteration with an ASN1ParsingException.
+     */
+    public static Iterator<ASN1BufferView> getObjects(ByteBuffer buf) {
+        return new ViewIterator(buf.duplicate(), buf.position(), buf.limit());
+    }
+
+    /**
+     * Return the first identifier octet, including the class and constructed bits.
+     */
+    public int getTag() {
+        return tag;
+    }
+
+    public int getTagNo() {
+        return tagNo;
+    }
+
+    public boolean isConstructed() {
+        return (tag & CONSTRUCTED) != 0;
+    }
+
+    /**
+     * Return true if this is a context specific tagged object.
+     */
+    public boolean isTagged() {
+        return (tag & (TAGGED | APPLICATION)) == TAGGED;
+    }
+
+    /**
+     * Return the length of the contents octets, or -1 for an indefinite-length encoding.
+     */
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Return the length of the complete encoding, identifier and length octets included.
+     */
+    public int getEncodedLength() {
+        return end - start;
+    }
+
+    /**
+     * Return the contents octets as a read-only slice, without the end-of-contents octets
+     * of an indefinite-length encoding.
+     */
+    public ByteBuffer getContentsBuffer() {
+        return slice(contentStart, contentLength < 0 ? end - 2 : end);
+    }
+
+    /**
+     * Return the complete encoding as a read-only slice.
+     */
+    public ByteBuffer getEncodedBuffer() {
+        return slice(start, end);
+    }
+
+    /**
+     * Return the objects inside a constructed encoding. Only their identifier and length
+     * octets are read.
+     */
+    public Iterator<ASN1BufferView> getObjects() {
+        if (!isConstructed()) {
+            throw new IllegalStateException("primitive encoding has no nested objects");
+        }
+
+        return new ViewIterator(buf, contentStart, contentLength < 0 ? end - 2 : end);
+    }
+
+    /**
+     * Return the index'th object inside a constructed encoding.
+     *
+     * @throws ArrayIndexOutOfBoundsException if there are not enough objects.
+     */
+    public ASN1BufferView getObjectAt(int index) {
+        Iterator<ASN1BufferView> it = getObjects();
+        for (int i = 0; i < index && it.hasNext(); i++) {
+            it.next();
+        }
+
+        if (!it.hasNext()) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+
+        return it.next();
+    }
+
+    /**
+     * Decode the object. The result is built the first time it is asked for.
+     */
+    public ASN1Primitive toASN1Primitive() {
+        ASN1Primitive p = primitive;
+        if (p == null) {
+            try {
+                p = primitive = decode();
+            } catch (IOException e) {
+                throw new ASN1ParsingException("unable to decode buffer view: " + e.getMessage(), e);
+            }
+        }
+
+        return p;
+    }
+
+    private ASN1Primitive decode()
+            throws IOException {
+        int length = end - start;
+
+        if (buf.hasArray()) {
+            // heap buffers are decoded in place, no copy of the encoding is made
+            return new ASN1InputStream(new ByteArrayInputStream(buf.array(), buf.arrayOffset() + start, length), length).readObject();
+        }
+
+        byte[] encoding = new byte[length];
+        slice(start, end).get(encoding);
+
+        return ASN1Primitive.fromByteArray(encoding);
+    }
+
+    private ByteBuffer slice(int from, int to) {
+        ByteBuffer b = buf.duplicate();
+        b.limit(to);
+        b.position(from);
+
+        return b.slice().asReadOnlyBuffer();
+    }
+
+    private static ASN1BufferView read(ByteBuffer buf, int offset, int limit)
+            throws IOException {
+        return read(buf, offset, limit, true);
+    }
+
+    /**
+     * Read the identifier and length octets at offset. If findEnd is false the end of an
+     * indefinite-length encoding is not looked for and is left as -1.
+     */
+    private static ASN1BufferView read(ByteBuffer buf, int offset, int limit, boolean findEnd)
+            throws IOException {
+        int start = offset;
+
+        if (offset >= limit) {
+            throw new EOFException("EOF found when tag expected");
+        }
+
+        int tag = buf.get(offset++) & 0xff;
+        int tagNo = tag & 0x1f;
+
+        if (tagNo == 0x1f) {
+            tagNo = 0;
+
+            int b = offset < limit ? buf.get(offset++) & 0xff : -1;
+
+            // X.690-0207 8.1.2.4.2
+            // "c) bits 7 to 1 of the first subsequent octet shall not all be zero."
+            if ((b & 0x7f) == 0) {
+                throw new IOException("corrupted stream - invalid high tag number found");
+            }
+
+            while ((b >= 0) && ((b & 0x80) != 0)) {
+                tagNo |= (b & 0x7f);
+                tagNo <<= 7;
+                b = offset < limit ? buf.get(offset++) & 0xff : -1;
+            }
+
+            if (b < 0) {
+                throw new EOFException("EOF found inside tag value.");
+            }
+
+            tagNo |= (b & 0x7f);
+        }
+
+        if (offset >= limit) {
+            throw new EOFException("EOF found when length expected");
+        }
+
+        int length = buf.get(offset++) & 0xff;
+
+        if (length == 0x80) {
+            if ((tag & CONSTRUCTED) == 0) {
+                throw new IOException("indefinite-length primitive encoding encountered");
+            }
+
+            return new ASN1BufferView(buf, start, tag, tagNo, offset, -1, findEnd ? findEndOfContents(buf, offset, limit) : -1);
+        }
+
+        if (length > 127) {
+            int size = length & 0x7f;
+
+            // Note: The invalid long form "0xff" (see X.690 8.1.3.5c) will be caught here
+            if (size > 4) {
+                throw new IOException("DER length more than 4 bytes: " + size);
+            }
+
+            length = 0;
+            for (int i = 0; i < size; i++) {
+                if (offset >= limit) {
+                    throw new EOFException("EOF found reading length");
+                }
+
+                length = (length << 8) + (buf.get(offset++) & 0xff);
+            }
+
+            if (length < 0) {
+                throw new IOException("corrupted stream - negative length found");
+            }
+        }
+
+        if (length > limit - offset) {
+            throw new EOFException("DEF length " + length + " object truncated by " + (length - (limit - offset)));
+        }
+
+        return new ASN1BufferView(buf, start, tag, tagNo, offset, length, offset + length);
+    }
+
+    /**
+     * Skip over the nested objects of an indefinite-length encoding, reading only their
+     * headers, and return the offset just past its end-of-contents octets. Nested
+     * indefinite-length encodings are counted rather than recursed into, so deeply
+     * nested input can't exhaust the stack.
+     */
+    private static int findEndOfContents(ByteBuffer buf, int offset, int limit)
+            throws IOException {
+        int open = 1;
+
+        while (true) {
+            if (limit - offset < 2) {
+                throw new EOFException("EOF found before end-of-contents octets");
+            }
+
+            if (buf.get(offset) == 0 && buf.get(offset + 1) == 0) {
+                offset += 2;
+                if (--open == 0) {
+                    return offset;
+                }
+                continue;
+            }
+
+            ASN1BufferView nested = read(buf, offset, limit, false);
+            if (nested.contentLength < 0) {
+                open++;
+                offset = nested.contentStart;
+            } else {
+                offset = nested.end;
+            }
+        }
+    }
+
+    private static class ViewIterator
+            implements Iterator<ASN1BufferView> {
+        private final ByteBuffer buf;
+        private final int limit;
+        private int offset;
+
+        ViewIterator(ByteBuffer buf, int offset, int limit) {
+            this.buf = buf;
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        public boolean hasNext() {
+            return offset < limit;
+        }
+
+        public ASN1BufferView next() {
+            if (offset >= limit) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                ASN1BufferView view = read(buf, offset, limit);
+                offset = view.end;
+
+                return view;
+            } catch (IOException e) {
+                offset = limit;
+                throw new ASN1ParsingException("malformed object in buffer: " + e.getMessage(), e);
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("buffer views are read-only");
+        }
+    }
+}
@@ -89,6 +89,22 @@ public class ASN1EncodableVector {
         return copy;
     }
 
+    /**
+     * Empty the vector for reuse, keeping its capacity unless the elements array was
+     * handed over to a constructed object by takeElements().
+     */
+    void reset() {
+        if (copyOnWrite) {
+            this.elements = new ASN1Encodable[elements.length];
+            this.copyOnWrite = false;
+        } else {
+            for (int i = 0; i != elementCount; i++) {
+                elements[i] = null;
+            }
+        }
+        this.elementCount = 0;
+    }
+
     private void reallocate(int minCapacity) {
         int oldCapacity = elements.length;
         int newCapacity = Math.max(oldCapacity, minCapacity + (minCapacity >> 1));
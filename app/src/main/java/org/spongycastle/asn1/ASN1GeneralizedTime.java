@@ -116,6 +116,11 @@ public class ASN1GeneralizedTime
      */
     public ASN1GeneralizedTime(
             Date time) {
+        this.time = DateUtil.formatGeneralizedTime(time.getTime());
+        if (this.time != null) {
+            return;
+        }
+
         SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmss'Z'", DateUtil.EN_Locale);
 
         dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
@@ -270,6 +275,11 @@ public class ASN1GeneralizedTime
 
     public Date getDate()
             throws ParseException {
+        long millis = DateUtil.parseGeneralizedTime(time);
+        if (millis != DateUtil.NOT_PARSED) {
+            return new Date(millis);
+        }
+
         SimpleDateFormat dateF;
         String stime = Strings.fromByteArray(time);
         String d = stime;
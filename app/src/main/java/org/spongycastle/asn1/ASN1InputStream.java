@@ -7,6 +7,7 @@ import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * A general purpose ASN.1 decoder - note: this class differs from the
@@ -22,6 +23,12 @@ public class ASN1InputStream
 
     private final byte[][] tmpBuffers;
 
+    // decoder state recycled across readObject() calls: one content frame for this
+    // level, and the stream and vector used to read the level below it.
+    private DefiniteLengthInputStream frame;
+    private ASN1InputStream subStream;
+    private ASN1EncodableVector vector;
+
     public ASN1InputStream(
             InputStream is) {
         this(is, StreamUtil.findLimit(is));
@@ -88,10 +95,18 @@ public class ASN1InputStream
             InputStream input,
             int limit,
             boolean lazyEvaluate) {
+        this(input, limit, lazyEvaluate, new byte[11][]);
+    }
+
+    private ASN1InputStream(
+            InputStream input,
+            int limit,
+            boolean lazyEvaluate,
+            byte[][] tmpBuffers) {
         super(input);
         this.limit = limit;
         this.lazyEvaluate = lazyEvaluate;
-        this.tmpBuffers = new byte[11][];
+        this.tmpBuffers = tmpBuffers;
     }
 
     int getLimit() {
@@ -120,14 +135,19 @@ public class ASN1InputStream
             throws IOException {
         boolean isConstructed = (tag & CONSTRUCTED) != 0;
 
-        DefiniteLengthInputStream defIn = new DefiniteLengthInputStream(this, length, limit);
+        DefiniteLengthInputStream defIn = frame;
+        if (defIn == null) {
+            defIn = frame = new DefiniteLengthInputStream(this, length, limit);
+        } else {
+            defIn.reset(length);
+        }
 
         if ((tag & APPLICATION) != 0) {
             return new DLApplicationSpecific(isConstructed, tagNo, defIn.toByteArray());
         }
 
         if ((tag & TAGGED) != 0) {
-            return new ASN1StreamParser(defIn).readTaggedObject(isConstructed, tagNo);
+            return readTaggedObject(isConstructed, tagNo, defIn);
         }
 
         if (isConstructed) {
@@ -137,6 +157,10 @@ public class ASN1InputStream
                     //
                     // yes, people actually do this...
                     //
+                    if (lazyEvaluate) {
+                        return new LazyEncodedOctetString(defIn.toByteArray());
+                    }
+
                     ASN1EncodableVector v = readVector(defIn);
                     ASN1OctetString[] strings = new ASN1OctetString[v.size()];
 
@@ -157,7 +181,11 @@ public class ASN1InputStream
                         return DLFactory.createSequence(readVector(defIn));
                     }
                 case SET:
-                    return DLFactory.createSet(readVector(defIn));
+                    if (lazyEvaluate) {
+                        return new LazyEncodedSet(defIn.toByteArray());
+                    } else {
+                        return DLFactory.createSet(readVector(defIn));
+                    }
                 case EXTERNAL:
                     return new DLExternal(readVector(defIn));
                 default:
@@ -168,13 +196,60 @@ public class ASN1InputStream
         return createPrimitiveDERObject(tagNo, defIn, tmpBuffers);
     }
 
+    /**
+     * Definite-length tagged objects are read with this stream's recycled frames rather
+     * than through a fresh ASN1StreamParser, which would allocate a parser, scratch
+     * buffers and a vector for every level below the tag.
+     */
+    private ASN1Primitive readTaggedObject(boolean isConstructed, int tagNo, DefiniteLengthInputStream defIn)
+            throws IOException {
+        if (!isConstructed) {
+            // Note: !CONSTRUCTED => IMPLICIT
+            return new DLTaggedObject(false, tagNo, new DEROctetString(defIn.toByteArray()));
+        }
+
+        if (lazyEvaluate) {
+            return readLazyTaggedObject(tagNo, defIn.toByteArray());
+        }
+
+        ASN1EncodableVector v = readVector(defIn);
+
+        return v.size() == 1
+                ? new DLTaggedObject(true, tagNo, v.get(0))
+                : new DLTaggedObject(false, tagNo, DLFactory.createSequence(v));
+    }
+
+    /**
+     * A constructed tagged object is explicit when its contents hold exactly one object, as in
+     * the eager case, but only the identifier and length octets are read to find that out and
+     * the object inside is itself decoded lazily.
+     */
+    private static ASN1Primitive readLazyTaggedObject(int tagNo, byte[] contents)
+            throws IOException {
+        if (contents.length > 0
+                && ASN1BufferView.getInstance(ByteBuffer.wrap(contents)).getEncodedLength() == contents.length) {
+            return new DLTaggedObject(true, tagNo, new ASN1InputStream(contents, true).readObject());
+        }
+
+        return new DLTaggedObject(false, tagNo, new LazyEncodedSequence(contents));
+    }
+
     ASN1EncodableVector readVector(DefiniteLengthInputStream dIn) throws IOException {
         if (dIn.getRemaining() < 1) {
             return new ASN1EncodableVector(0);
         }
 
-        ASN1InputStream subStream = new ASN1InputStream(dIn);
-        ASN1EncodableVector v = new ASN1EncodableVector();
+        // the vector is only valid until the next readVector() at this level, callers
+        // turn it into a constructed object straight away.
+        if (subStream == null) {
+            subStream = new ASN1InputStream(dIn, dIn.getLimit(), false, tmpBuffers);
+            subStream.vector = new ASN1EncodableVector();
+        } else {
+            subStream.in = dIn;
+            subStream.vector.reset();
+        }
+
+        ASN1EncodableVector v = subStream.vector;
         ASN1Primitive p;
         while ((p = subStream.readObject()) != null) {
             v.add(p);
@@ -212,7 +287,7 @@ public class ASN1InputStream
             }
 
             IndefiniteLengthInputStream indIn = new IndefiniteLengthInputStream(this, limit);
-            ASN1StreamParser sp = new ASN1StreamParser(indIn, limit);
+            ASN1StreamParser sp = new ASN1StreamParser(indIn, limit, tmpBuffers);
 
             if ((tag & APPLICATION) != 0) {
                 return new BERApplicationSpecificParser(tagNo, sp).getLoadedObject();
@@ -5,8 +5,8 @@ import org.spongycastle.util.Arrays;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Class representing the ASN.1 OBJECT IDENTIFIER type.
@@ -15,7 +15,7 @@ public class ASN1ObjectIdentifier
         extends ASN1Primitive {
     private final String identifier;
 
-    private byte[] body;
+    private volatile byte[] body;
 
     /**
      * Return an OID from the passed in object
@@ -235,16 +235,18 @@ public class ASN1ObjectIdentifier
         }
     }
 
-    private synchronized byte[] getBody() {
-        if (body == null) {
+    private byte[] getBody() {
+        byte[] b = body;
+        if (b == null) {
+            // threads racing here compute the same encoding, whichever is published last wins
             ByteArrayOutputStream bOut = new ByteArrayOutputStream();
 
             doOutput(bOut);
 
-            body = bOut.toByteArray();
+            b = body = bOut.toByteArray();
         }
 
-        return body;
+        return b;
     }
 
     boolean isConstructed() {
@@ -328,53 +330,72 @@ public class ASN1ObjectIdentifier
      * is not present in which case intern will add it.
      * <p>
      * The pool is also used by the ASN.1 parsers to limit the number of duplicated OID
-     * objects in circulation.
+     * objects in circulation. It holds at most {@link #MAX_POOL_SIZE} identifiers, once
+     * it is full an identifier not already in it is returned as is.
      * </p>
      *
      * @return a reference to the identifier in the pool.
      */
     public ASN1ObjectIdentifier intern() {
-        final OidHandle hdl = new OidHandle(getBody());
-        ASN1ObjectIdentifier oid = pool.get(hdl);
-        if (oid == null) {
-            oid = pool.putIfAbsent(hdl, this);
+        byte[] enc = getBody();
+        int mask = pool.length() - 1;
+        int index = hash(enc) & mask;
+
+        while (true) {
+            ASN1ObjectIdentifier oid = pool.get(index);
+
             if (oid == null) {
-                oid = this;
+                if (poolSize.incrementAndGet() > MAX_POOL_SIZE) {
+                    poolSize.decrementAndGet();
+                    return this;
+                }
+                if (pool.compareAndSet(index, null, this)) {
+                    return this;
+                }
+                // another identifier took the slot, look at it before moving on
+                poolSize.decrementAndGet();
+                continue;
             }
-        }
-        return oid;
-    }
-
-    private static final ConcurrentMap<OidHandle, ASN1ObjectIdentifier> pool = new ConcurrentHashMap<OidHandle, ASN1ObjectIdentifier>();
 
-    private static class OidHandle {
-        private final int key;
-        private final byte[] enc;
+            if (Arrays.areEqual(enc, oid.body)) {
+                return oid;
+            }
 
-        OidHandle(byte[] enc) {
-            this.key = Arrays.hashCode(enc);
-            this.enc = enc;
+            index = (index + 1) & mask;
         }
+    }
 
-        public int hashCode() {
-            return key;
-        }
+    /**
+     * The most identifiers the pool will hold. The constants of the identifier interfaces
+     * are interned as their classes load, the rest of the room is left for applications.
+     */
+    static final int MAX_POOL_SIZE = 1024;
 
-        public boolean equals(Object o) {
-            if (o instanceof OidHandle) {
-                return Arrays.areEqual(enc, ((OidHandle) o).enc);
-            }
+    // open addressing with linear probing, at most half full so a probe always meets an empty slot
+    private static final AtomicReferenceArray<ASN1ObjectIdentifier> pool = new AtomicReferenceArray<ASN1ObjectIdentifier>(MAX_POOL_SIZE * 2);
+    private static final AtomicInteger poolSize = new AtomicInteger();
 
-            return false;
+    private static int hash(byte[] enc) {
+        int h = 0;
+        for (int i = 0; i != enc.length; i++) {
+            h = h * 31 + enc[i];
         }
+
+        return h ^ (h >>> 16);
     }
 
     static ASN1ObjectIdentifier fromOctetString(byte[] enc) {
-        final OidHandle hdl = new OidHandle(enc);
-        ASN1ObjectIdentifier oid = pool.get(hdl);
-        if (oid == null) {
-            return new ASN1ObjectIdentifier(enc);
+        int mask = pool.length() - 1;
+        int index = hash(enc) & mask;
+
+        ASN1ObjectIdentifier oid;
+        while ((oid = pool.get(index)) != null) {
+            if (Arrays.areEqual(enc, oid.body)) {
+                return oid;
+            }
+            index = (index + 1) & mask;
         }
-        return oid;
+
+        return new ASN1ObjectIdentifier(enc);
     }
 }
@@ -274,7 +274,7 @@ public abstract class ASN1OctetString
 
         ASN1OctetString  other = (ASN1OctetString)o;
 
-        return Arrays.areEqual(string, other.string);
+        return Arrays.areEqual(this.getOctets(), other.getOctets());
     }
 
     public ASN1Primitive getLoadedObject()
@@ -98,8 +98,14 @@ public abstract class ASN1Set
     extends ASN1Primitive
     implements org.spongycastle.util.Iterable<ASN1Encodable>
 {
-    protected final ASN1Encodable[] elements;
-    protected final boolean isSorted;
+    protected ASN1Encodable[] elements;
+    protected boolean isSorted;
+
+    /**
+     * The DER encodings of the elements, in element order, if they were computed when the
+     * elements were sorted; null otherwise.
+     */
+    byte[][] derEncodings;
 
     /**
      * return an ASN1Set from the given object.
@@ -260,7 +266,7 @@ public abstract class ASN1Set
         if (doSort && elementVector.size() >= 2)
         {
             tmp = elementVector.copyElements();
-            sort(tmp);
+            this.derEncodings = sort(tmp);
         }
         else
         {
@@ -286,7 +292,7 @@ public abstract class ASN1Set
         ASN1Encodable[] tmp = ASN1EncodableVector.cloneElements(elements);
         if (doSort && tmp.length >= 2)
         {
-            sort(tmp);
+            this.derEncodings = sort(tmp);
         }
 
         this.elements = tmp;
@@ -299,6 +305,13 @@ public abstract class ASN1Set
         this.isSorted = isSorted || elements.length < 2;
     }
 
+    ASN1Set(ASN1Encodable[] elements, byte[][] derEncodings)
+    {
+        this.elements = elements;
+        this.isSorted = true;
+        this.derEncodings = derEncodings;
+    }
+
     public Enumeration getObjects()
     {
         return new Enumeration()
@@ -408,18 +421,15 @@ public abstract class ASN1Set
      */
     ASN1Primitive toDERObject()
     {
-        ASN1Encodable[] tmp;
         if (isSorted)
         {
-            tmp = elements;
-        }
-        else
-        {
-            tmp = elements.clone();
-            sort(tmp);
+            return new DERSet(true, elements);
         }
 
-        return new DERSet(true, tmp);
+        ASN1Encodable[] tmp = elements.clone();
+        byte[][] encodings = sort(tmp);
+
+        return new DERSet(tmp, encodings);
     }
 
     /**
@@ -547,61 +557,36 @@ public abstract class ASN1Set
         return (a[last] & 0xFF) <= (b[last] & 0xFF);
     }
 
-    private static void sort(ASN1Encodable[] t)
+    /**
+     * Sort the elements into DER order. Each element is encoded exactly once, and the encodings
+     * are returned in the new element order so the caller can keep them for its own encoding.
+     */
+    private static byte[][] sort(ASN1Encodable[] t)
     {
         int count = t.length;
-        if (count < 2)
-        {
-            return;
-        }
-
-        ASN1Encodable eh = t[0], ei = t[1];
-        byte[] bh = getDEREncoded(eh), bi = getDEREncoded(ei);
-
-        if (lessThanOrEqual(bi, bh))
+        byte[][] encodings = new byte[count][];
+        for (int i = 0; i < count; ++i)
         {
-            ASN1Encodable et = ei; ei = eh; eh = et;
-            byte[] bt = bi; bi = bh; bh = bt;
+            encodings[i] = getDEREncoded(t[i]);
         }
 
-        for (int i = 2; i < count; ++i)
+        for (int i = 1; i < count; ++i)
         {
             ASN1Encodable e2 = t[i];
-            byte[] b2 = getDEREncoded(e2);
-
-            if (lessThanOrEqual(bi, b2))
-            {
-                t[i - 2] = eh;
-                eh = ei; bh = bi;
-                ei = e2; bi = b2;
-                continue;
-            }
+            byte[] b2 = encodings[i];
 
-            if (lessThanOrEqual(bh, b2))
+            int j = i;
+            while (j > 0 && !lessThanOrEqual(encodings[j - 1], b2))
             {
-                t[i - 2] = eh;
-                eh = e2; bh = b2;
-                continue;
-            }
-
-            int j = i - 1;
-            while (--j > 0)
-            {
-                ASN1Encodable e1 = t[j - 1];
-                byte[] b1 = getDEREncoded(e1);
-
-                if (lessThanOrEqual(b1, b2))
-                {
-                    break;
-                }
-
-                t[j] = e1;
+                t[j] = t[j - 1];
+                encodings[j] = encodings[j - 1];
+                --j;
             }
 
             t[j] = e2;
+            encodings[j] = b2;
         }
 
-        t[count - 2] = eh;
-        t[count - 1] = ei;
+        return encodings;
     }
 }
@@ -8,4 +8,12 @@ import java.io.IOException;
 public interface ASN1SetParser
     extends ASN1Encodable, InMemoryRepresentable
 {
+    /**
+     * Read the next object from the underlying object representing a SET.
+     *
+     * @throws IOException for bad input stream.
+     * @return the next object, null if we are at the end.
+     */
+    ASN1Encodable readObject()
+        throws IOException;
 }
@@ -19,10 +19,20 @@ public class ASN1StreamParser {
     public ASN1StreamParser(
             InputStream in,
             int limit) {
+        this(in, limit, new byte[11][]);
+    }
+
+    /**
+     * Nested parsers share their parent's scratch buffers, they are only used while a
+     * single primitive is being built.
+     */
+    ASN1StreamParser(
+            InputStream in,
+            int limit,
+            byte[][] tmpBuffers) {
         this._in = in;
         this._limit = limit;
-
-        this.tmpBuffers = new byte[11][];
+        this.tmpBuffers = tmpBuffers;
     }
 
 
@@ -128,7 +138,7 @@ public class ASN1StreamParser {
             }
 
             IndefiniteLengthInputStream indIn = new IndefiniteLengthInputStream(_in, _limit);
-            ASN1StreamParser sp = new ASN1StreamParser(indIn, _limit);
+            ASN1StreamParser sp = new ASN1StreamParser(indIn, _limit, tmpBuffers);
 
             if ((tag & BERTags.APPLICATION) != 0) {
                 return new BERApplicationSpecificParser(tagNo, sp);
@@ -147,7 +157,7 @@ public class ASN1StreamParser {
             }
 
             if ((tag & BERTags.TAGGED) != 0) {
-                return new BERTaggedObjectParser(isConstructed, tagNo, new ASN1StreamParser(defIn));
+                return new BERTaggedObjectParser(isConstructed, tagNo, new ASN1StreamParser(defIn, _limit, tmpBuffers));
             }
 
             if (isConstructed) {
@@ -157,13 +167,13 @@ public class ASN1StreamParser {
                         //
                         // yes, people actually do this...
                         //
-                        return new BEROctetStringParser(new ASN1StreamParser(defIn));
+                        return new BEROctetStringParser(new ASN1StreamParser(defIn, _limit, tmpBuffers));
                     case BERTags.SEQUENCE:
-                        return new DLSequenceParser(new ASN1StreamParser(defIn));
+                        return new DLSequenceParser(new ASN1StreamParser(defIn, _limit, tmpBuffers));
                     case BERTags.SET:
-                        return new DLSetParser(new ASN1StreamParser(defIn));
+                        return new DLSetParser(new ASN1StreamParser(defIn, _limit, tmpBuffers));
                     case BERTags.EXTERNAL:
-                        return new DERExternalParser(new ASN1StreamParser(defIn));
+                        return new DERExternalParser(new ASN1StreamParser(defIn, _limit, tmpBuffers));
                     default:
                         throw new IOException("unknown tag " + tagNo + " encountered");
                 }
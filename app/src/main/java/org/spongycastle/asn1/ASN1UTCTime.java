@@ -48,6 +48,10 @@ public class ASN1UTCTime
     public ASN1UTCTime(
             String time) {
         this.time = Strings.toByteArray(time);
+        if (DateUtil.parseAdjustedUTCTime(this.time) != DateUtil.NOT_PARSED) {
+            return;
+        }
+
         try {
             this.getDate();
         } catch (ParseException e) {
@@ -55,6 +59,19 @@ public class ASN1UTCTime
         }
     }
 
+    /**
+     * Write a time as the 13 octets YYMMDDHHMMSSZ of a UTCTime into buf, without building the
+     * object - for patching a time into an existing encoding.
+     *
+     * @param buf    the buffer to write to.
+     * @param off    offset of the first digit.
+     * @param millis the time in milliseconds since the epoch.
+     * @return false, with buf left untouched, if the year is outside 1950 to 2049.
+     */
+    public static boolean writeTime(byte[] buf, int off, long millis) {
+        return DateUtil.writeUTCTime(buf, off, millis);
+    }
+
     /**
      * Base constructor from a java.util.date object
      *
@@ -62,6 +79,11 @@ public class ASN1UTCTime
      */
     public ASN1UTCTime(
             Date time) {
+        this.time = DateUtil.formatUTCTime(time.getTime());
+        if (this.time != null) {
+            return;
+        }
+
         SimpleDateFormat dateF = new SimpleDateFormat("yyMMddHHmmss'Z'", DateUtil.EN_Locale);
 
         dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
@@ -104,6 +126,11 @@ public class ASN1UTCTime
      */
     public Date getAdjustedDate()
             throws ParseException {
+        long millis = DateUtil.parseAdjustedUTCTime(time);
+        if (millis != DateUtil.NOT_PARSED) {
+            return new Date(millis);
+        }
+
         SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmssz");
 
         dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
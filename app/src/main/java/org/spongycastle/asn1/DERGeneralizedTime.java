@@ -3,6 +3,7 @@ package org.spongycastle.asn1;
 import org.spongycastle.util.Strings;
 
 import java.io.IOException;
+import java.util.Date;
 
 /**
  * DER Generalized time object.
@@ -31,6 +32,10 @@ public class DERGeneralizedTime
         super(time);
     }
 
+    public DERGeneralizedTime(Date time) {
+        super(time);
+    }
+
     private byte[] getDERTime() {
         if (time[time.length - 1] == 'Z') {
             if (!hasMinutes()) {
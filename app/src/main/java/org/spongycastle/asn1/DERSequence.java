@@ -15,6 +15,7 @@ public class DERSequence
     }
 
     private int bodyLength = -1;
+    private volatile ASN1Primitive[] derObjects;
 
     /**
      * Create an empty sequence
@@ -44,14 +45,33 @@ public class DERSequence
         super(elements, clone);
     }
 
+    /**
+     * Return the elements converted to DER. They are kept, so that encoding this object again,
+     * or a structure it is nested in, neither converts nor measures the subtree a second time.
+     */
+    private ASN1Primitive[] getDERObjects() {
+        ASN1Primitive[] derObjects = this.derObjects;
+        if (derObjects == null) {
+            int count = elements.length;
+            derObjects = new ASN1Primitive[count];
+
+            for (int i = 0; i < count; ++i) {
+                derObjects[i] = elements[i].toASN1Primitive().toDERObject();
+            }
+
+            this.derObjects = derObjects;
+        }
+
+        return derObjects;
+    }
+
     private int getBodyLength() throws IOException {
         if (bodyLength < 0) {
-            int count = elements.length;
+            ASN1Primitive[] derObjects = getDERObjects();
             int totalLength = 0;
 
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                totalLength += derObject.encodedLength();
+            for (int i = 0; i < derObjects.length; ++i) {
+                totalLength += derObjects[i].encodedLength();
             }
 
             this.bodyLength = totalLength;
@@ -79,32 +99,13 @@ public class DERSequence
             out.write(BERTags.SEQUENCE | BERTags.CONSTRUCTED);
         }
 
-        DEROutputStream derOut = out.getDERSubStream();
-
-        int count = elements.length;
-        if (bodyLength >= 0 || count > 16) {
-            out.writeLength(getBodyLength());
+        out.writeLength(getBodyLength());
 
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                derObject.encode(derOut, true);
-            }
-        } else {
-            int totalLength = 0;
-
-            ASN1Primitive[] derObjects = new ASN1Primitive[count];
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                derObjects[i] = derObject;
-                totalLength += derObject.encodedLength();
-            }
-
-            this.bodyLength = totalLength;
-            out.writeLength(totalLength);
+        DEROutputStream derOut = out.getDERSubStream();
+        ASN1Primitive[] derObjects = getDERObjects();
 
-            for (int i = 0; i < count; ++i) {
-                derObjects[i].encode(derOut, true);
-            }
+        for (int i = 0; i < derObjects.length; ++i) {
+            derObjects[i].encode(derOut, true);
         }
     }
 
@@ -1,6 +1,9 @@
 package org.spongycastle.asn1;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.spongycastle.util.Arrays;
 
 /**
  * A DER encoded SET object
@@ -15,6 +18,7 @@ import java.io.IOException;
 public class DERSet
         extends ASN1Set {
     private int bodyLength = -1;
+    private volatile ASN1Primitive[] derObjects;
 
     /**
      * create an empty set
@@ -53,14 +57,66 @@ public class DERSet
         super(checkSorted(isSorted), elements);
     }
 
+    DERSet(ASN1Encodable[] elements, byte[][] derEncodings) {
+        super(elements, derEncodings);
+    }
+
+    /**
+     * Return a set for a complete DER encoding of a SET, for example one patched into a
+     * precomputed template. The elements are only parsed if they are asked for and the
+     * encoding is otherwise written out unchanged, so it is up to the caller to make sure
+     * the contents really are DER and in DER order.
+     *
+     * @param encoding the DER encoding of the SET, identifier and length octets included.
+     * @return a set backed by a copy of the contents octets.
+     * @throws IOException if the encoding is not a single definite-length SET.
+     */
+    public static ASN1Set fromDEREncoding(byte[] encoding) throws IOException {
+        ASN1BufferView view = ASN1BufferView.getInstance(ByteBuffer.wrap(encoding));
+
+        if (view.getTag() != (BERTags.SET | BERTags.CONSTRUCTED) || view.getContentLength() < 0
+                || view.getEncodedLength() != encoding.length) {
+            throw new IOException("encoding is not a single definite-length SET");
+        }
+
+        int start = encoding.length - view.getContentLength();
+
+        return new LazyEncodedSet(Arrays.copyOfRange(encoding, start, encoding.length), true);
+    }
+
+    /**
+     * Return the elements converted to DER. They are kept, so that encoding this object again,
+     * or a structure it is nested in, neither converts nor measures the subtree a second time.
+     */
+    private ASN1Primitive[] getDERObjects() {
+        ASN1Primitive[] derObjects = this.derObjects;
+        if (derObjects == null) {
+            int count = elements.length;
+            derObjects = new ASN1Primitive[count];
+
+            for (int i = 0; i < count; ++i) {
+                derObjects[i] = elements[i].toASN1Primitive().toDERObject();
+            }
+
+            this.derObjects = derObjects;
+        }
+
+        return derObjects;
+    }
+
     private int getBodyLength() throws IOException {
         if (bodyLength < 0) {
-            int count = elements.length;
             int totalLength = 0;
 
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                totalLength += derObject.encodedLength();
+            if (derEncodings != null) {
+                for (int i = 0; i < derEncodings.length; ++i) {
+                    totalLength += derEncodings[i].length;
+                }
+            } else {
+                ASN1Primitive[] derObjects = getDERObjects();
+                for (int i = 0; i < derObjects.length; ++i) {
+                    totalLength += derObjects[i].encodedLength();
+                }
             }
 
             this.bodyLength = totalLength;
@@ -88,30 +144,18 @@ public class DERSet
             out.write(BERTags.SET | BERTags.CONSTRUCTED);
         }
 
-        DEROutputStream derOut = out.getDERSubStream();
-
-        int count = elements.length;
-        if (bodyLength >= 0 || count > 16) {
-            out.writeLength(getBodyLength());
+        out.writeLength(getBodyLength());
 
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                derObject.encode(derOut, true);
+        if (derEncodings != null) {
+            // the elements were encoded once already, when they were sorted
+            for (int i = 0; i < derEncodings.length; ++i) {
+                out.write(derEncodings[i], 0, derEncodings[i].length);
             }
         } else {
-            int totalLength = 0;
-
-            ASN1Primitive[] derObjects = new ASN1Primitive[count];
-            for (int i = 0; i < count; ++i) {
-                ASN1Primitive derObject = elements[i].toASN1Primitive().toDERObject();
-                derObjects[i] = derObject;
-                totalLength += derObject.encodedLength();
-            }
-
-            this.bodyLength = totalLength;
-            out.writeLength(totalLength);
+            DEROutputStream derOut = out.getDERSubStream();
+            ASN1Primitive[] derObjects = getDERObjects();
 
-            for (int i = 0; i < count; ++i) {
+            for (int i = 0; i < derObjects.length; ++i) {
                 derObjects[i].encode(derOut, true);
             }
         }
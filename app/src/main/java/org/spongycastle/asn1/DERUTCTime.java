@@ -1,5 +1,7 @@
 package org.spongycastle.asn1;
 
+import java.util.Date;
+
 /**
  * DER UTC time object.
  */
@@ -11,5 +13,14 @@ public class DERUTCTime
         super(time);
     }
 
+    /**
+     * Base constructor from a java.util.date object
+     *
+     * @param time the Date to build the time from.
+     */
+    public DERUTCTime(Date time) {
+        super(time);
+    }
+
     // TODO: create proper DER encoding.
 }
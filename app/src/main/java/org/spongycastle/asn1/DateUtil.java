@@ -3,15 +3,30 @@ package org.spongycastle.asn1;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 class DateUtil
 {
     private static Long ZERO = longValueOf(0);
 
-    private static final Map localeCache = new HashMap();
+    private static final Map localeCache = new ConcurrentHashMap();
+
+    /**
+     * Returned by the parse methods for strings outside the forms they handle.
+     */
+    static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // dates before the Gregorian cut-over are left to SimpleDateFormat, which uses the Julian calendar
+    private static final int MIN_YEAR = 1600;
+    private static final int MAX_YEAR = 9999;
+
+    // the years RFC 5280 and CMS encode as UTCTime rather than GeneralizedTime
+    private static final int MIN_UTC_YEAR = 1950;
+    private static final int MAX_UTC_YEAR = 2049;
 
     static Locale EN_Locale = forEN();
 
@@ -43,34 +58,299 @@ class DateUtil
             return date;
         }
 
-        synchronized (localeCache)
+        // a race only measures the same locale twice
+        Long adj = (Long)localeCache.get(locale);
+
+        if (adj == null)
         {
-            Long adj = (Long)localeCache.get(locale);
+            SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmssz");
+            long v = dateF.parse("19700101000000GMT+00:00").getTime();
 
-            if (adj == null)
+            if (v == 0)
+            {
+                adj = ZERO;
+            }
+            else
             {
-                SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmssz");
-                long v = dateF.parse("19700101000000GMT+00:00").getTime();
+                adj = longValueOf(v);
+            }
 
-                if (v == 0)
-                {
-                    adj = ZERO;
-                }
-                else
+            localeCache.put(locale, adj);
+        }
+
+        if (adj.longValue() != 0)
+        {
+            return new Date(date.getTime() - adj.longValue());
+        }
+
+        return date;
+    }
+
+    /**
+     * Format a time as the YYYYMMDDHHMMSSZ digits of a GeneralizedTime.
+     *
+     * @return the digits, or null if the year is outside 1600 to 9999.
+     */
+    static byte[] formatGeneralizedTime(long millis)
+    {
+        byte[] time = new byte[15];
+
+        return writeTime(time, 0, millis, true, MIN_YEAR, MAX_YEAR) ? time : null;
+    }
+
+    /**
+     * Format a time as the YYMMDDHHMMSSZ digits of a UTCTime.
+     *
+     * @return the digits, or null if the year is outside 1600 to 9999.
+     */
+    static byte[] formatUTCTime(long millis)
+    {
+        byte[] time = new byte[13];
+
+        return writeTime(time, 0, millis, false, MIN_YEAR, MAX_YEAR) ? time : null;
+    }
+
+    /**
+     * Write a time as the YYMMDDHHMMSSZ digits of a UTCTime into buf at off.
+     *
+     * @return false, with nothing written, if the year is outside 1950 to 2049.
+     */
+    static boolean writeUTCTime(byte[] buf, int off, long millis)
+    {
+        return writeTime(buf, off, millis, false, MIN_UTC_YEAR, MAX_UTC_YEAR);
+    }
+
+    /**
+     * Parse the forms of GeneralizedTime used in practice: YYYYMMDDHH[MM[SS[.fff]]] followed by
+     * Z, an offset of +hh or +hhmm, or nothing, which is read as GMT like the SimpleDateFormat
+     * path does. Fractions beyond milliseconds are truncated.
+     *
+     * @return the time in milliseconds, or NOT_PARSED for anything else.
+     */
+    static long parseGeneralizedTime(byte[] time)
+    {
+        int length = time.length;
+        if (length < 10 || !isDigits(time, 0, 10))
+        {
+            return NOT_PARSED;
+        }
+
+        int year = digits(time, 0) * 100 + digits(time, 2);
+        int minute = 0, second = 0, millis = 0;
+        int pos = 10;
+
+        if (isDigits(time, 10, 12))
+        {
+            minute = digits(time, 10);
+            pos = 12;
+
+            if (isDigits(time, 12, 14))
+            {
+                second = digits(time, 12);
+                pos = 14;
+
+                if (pos < length && time[pos] == '.')
                 {
-                    adj = longValueOf(v);
+                    int start = ++pos;
+                    int scale = 100;
+                    while (pos < length && isDigit(time[pos]))
+                    {
+                        millis += (time[pos++] - '0') * scale;
+                        scale /= 10;
+                    }
+
+                    if (pos == start)
+                    {
+                        return NOT_PARSED;
+                    }
                 }
+            }
+        }
+
+        if (pos == 10 && length != 10 && time[10] != 'Z')
+        {
+            // an offset on an hour on its own is left to SimpleDateFormat, which rejects it
+            return NOT_PARSED;
+        }
+
+        return toMillis(time, pos, year, digits(time, 4), digits(time, 6), digits(time, 8), minute, second, millis);
+    }
+
+    /**
+     * Parse a UTCTime of the form YYMMDDHHMM[SS] followed by Z or an offset of +hh or +hhmm, or
+     * of YYMMDDHHMMSS alone (GMT), with two digit years below 50 taken as 20YY and the rest as 19YY.
+     *
+     * @return the time in milliseconds, or NOT_PARSED for anything else.
+     */
+    static long parseAdjustedUTCTime(byte[] time)
+    {
+        if (time.length < 10 || !isDigits(time, 0, 10))
+        {
+            return NOT_PARSED;
+        }
+
+        int yy = digits(time, 0);
+        int year = yy < 50 ? 2000 + yy : 1900 + yy;
+        int second = 0;
+        int pos = 10;
+
+        if (isDigits(time, 10, 12))
+        {
+            second = digits(time, 10);
+            pos = 12;
+        }
+        else if (time.length == 10)
+        {
+            // the zone may only be left off after the seconds
+            return NOT_PARSED;
+        }
+
+        return toMillis(time, pos, year, digits(time, 2), digits(time, 4), digits(time, 6), digits(time, 8), second, 0);
+    }
+
+    private static long toMillis(byte[] time, int zone, int year, int month, int day, int hour, int minute, int second, int millis)
+    {
+        int length = time.length;
+        int offset;
 
-                localeCache.put(locale, adj);
+        if (zone == length)
+        {
+            offset = 0;
+        }
+        else if (time[zone] == 'Z' && zone + 1 == length)
+        {
+            offset = 0;
+        }
+        else if ((time[zone] == '+' || time[zone] == '-') && (length - zone == 3 || length - zone == 5)
+            && isDigits(time, zone + 1, length))
+        {
+            int offsetHours = digits(time, zone + 1);
+            int offsetMinutes = length - zone == 5 ? digits(time, zone + 3) : 0;
+            if (offsetHours > 23 || offsetMinutes > 59)
+            {
+                return NOT_PARSED;
             }
 
-            if (adj != ZERO)
+            offset = (offsetHours * 60 + offsetMinutes) * 60 * 1000;
+            if (time[zone] == '-')
             {
-                return new Date(date.getTime() - adj.longValue());
+                offset = -offset;
             }
+        }
+        else
+        {
+            return NOT_PARSED;
+        }
 
-            return date;
+        // out of range fields are rolled over by the lenient SimpleDateFormat, leave those to it
+        if (year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+            || hour > 23 || minute > 59 || second > 59)
+        {
+            return NOT_PARSED;
+        }
+
+        long seconds = daysFromCivil(year, month, day) * 86400L + hour * 3600 + minute * 60 + second;
+
+        return seconds * 1000 + millis - offset;
+    }
+
+    private static boolean writeTime(byte[] buf, int off, long millis, boolean fullYear, int minYear, int maxYear)
+    {
+        long days = floorDiv(millis, MILLIS_PER_DAY);
+        int secondOfDay = (int)((millis - days * MILLIS_PER_DAY) / 1000);
+
+        // civil date from days since 1970-01-01, in 400 year eras starting on March 1st
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        int dayOfEra = (int)(z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < minYear || year > maxYear)
+        {
+            return false;
+        }
+
+        if (fullYear)
+        {
+            writeDigits(buf, off, (int)(year / 100));
+            off += 2;
+        }
+        writeDigits(buf, off, (int)(year % 100));
+        writeDigits(buf, off + 2, month);
+        writeDigits(buf, off + 4, day);
+        writeDigits(buf, off + 6, secondOfDay / 3600);
+        writeDigits(buf, off + 8, secondOfDay / 60 % 60);
+        writeDigits(buf, off + 10, secondOfDay % 60);
+        buf[off + 12] = 'Z';
+
+        return true;
+    }
+
+    private static long daysFromCivil(int year, int month, int day)
+    {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static int daysInMonth(int year, int month)
+    {
+        if (month == 2)
+        {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
         }
+
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    private static long floorDiv(long x, long y)
+    {
+        long q = x / y;
+
+        return (x % y < 0) ? q - 1 : q;
+    }
+
+    private static boolean isDigit(byte b)
+    {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isDigits(byte[] buf, int from, int to)
+    {
+        if (to > buf.length)
+        {
+            return false;
+        }
+
+        for (int i = from; i < to; i++)
+        {
+            if (!isDigit(buf[i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int digits(byte[] buf, int off)
+    {
+        return (buf[off] - '0') * 10 + (buf[off + 1] - '0');
+    }
+
+    private static void writeDigits(byte[] buf, int off, int value)
+    {
+        buf[off] = (byte)('0' + value / 10);
+        buf[off + 1] = (byte)('0' + value % 10);
     }
 
     private static Long longValueOf(long v)
@@ -14,7 +14,7 @@ class DefiniteLengthInputStream
 {
     private static final byte[] EMPTY_BYTES = new byte[0];
 
-    private final int _originalLength;
+    private int _originalLength;
 
     private int _remaining;
 
@@ -39,6 +39,26 @@ class DefiniteLengthInputStream
         }
     }
 
+    /**
+     * Start a new definite-length object on the same underlying stream, so a decoder
+     * can reuse one frame per nesting level rather than allocating one per object.
+     */
+    void reset(int length)
+    {
+        if (length < 0)
+        {
+            throw new IllegalArgumentException("negative lengths not allowed");
+        }
+
+        this._originalLength = length;
+        this._remaining = length;
+
+        if (length == 0)
+        {
+            setParentEofDetect(true);
+        }
+    }
+
     int getRemaining()
     {
         return _remaining;
@@ -0,0 +1,108 @@
+package org.spongycastle.asn1;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.spongycastle.util.Arrays;
+
+/**
+ * A constructed, definite-length OCTET STRING whose segments are only joined when the
+ * octets are first asked for. The original encoding is kept and written back as is.
+ * <p>
+ * Note: this class is for processing DL encoded OCTET STRINGs only.
+ */
+class LazyEncodedOctetString
+    extends ASN1OctetString
+{
+    private static final byte[] EMPTY = new byte[0];
+
+    private final byte[] encoded;
+
+    LazyEncodedOctetString(byte[] encoded)
+    {
+        // NOTE: Initially, the actual 'string' will be empty
+        super(EMPTY);
+
+        this.encoded = encoded;
+        this.string = null;
+    }
+
+    public synchronized byte[] getOctets()
+    {
+        force();
+
+        return string;
+    }
+
+    public InputStream getOctetStream()
+    {
+        return new ByteArrayInputStream(getOctets());
+    }
+
+    boolean isConstructed()
+    {
+        return true;
+    }
+
+    int encodedLength()
+    {
+        return 1 + StreamUtil.calculateBodyLength(encoded.length) + encoded.length;
+    }
+
+    void encode(ASN1OutputStream out, boolean withTag) throws IOException
+    {
+        out.writeEncoded(withTag, BERTags.CONSTRUCTED | BERTags.OCTET_STRING, encoded);
+    }
+
+    ASN1Primitive toDERObject()
+    {
+        return new DEROctetString(getOctets());
+    }
+
+    ASN1Primitive toDLObject()
+    {
+        return new DEROctetString(getOctets());
+    }
+
+    public synchronized String toString()
+    {
+        force();
+
+        return super.toString();
+    }
+
+    private void force()
+    {
+        if (null == string)
+        {
+            // the octets can only be shorter than the encoding of their segments
+            byte[] buf = new byte[encoded.length];
+            int length = 0;
+
+            ASN1InputStream aIn = new ASN1InputStream(encoded);
+            try
+            {
+                ASN1Primitive p;
+                while ((p = aIn.readObject()) != null)
+                {
+                    if (!(p instanceof ASN1OctetString))
+                    {
+                        throw new ASN1ParsingException("unknown object encountered in constructed OCTET STRING: " + p.getClass());
+                    }
+
+                    // a segment may itself be constructed, its octets are still no longer than its encoding
+                    byte[] segment = ((ASN1OctetString)p).getOctets();
+                    System.arraycopy(segment, 0, buf, length, segment.length);
+                    length += segment.length;
+                }
+            }
+            catch (IOException e)
+            {
+                throw new ASN1ParsingException("malformed DER construction: " + e, e);
+            }
+
+            this.string = Arrays.copyOfRange(buf, 0, length);
+        }
+    }
+}
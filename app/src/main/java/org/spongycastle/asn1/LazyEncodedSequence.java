@@ -3,14 +3,28 @@ package org.spongycastle.asn1;
 import java.io.IOException;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Note: this class is for processing DER/DL encoded sequences only.
+ * <p>
+ * The elements are published once and without locking: readers that find the sequence still
+ * encoded parse it themselves, the first one to finish hands its elements over with a
+ * compare-and-set, and every later reader only pays for a volatile read.
  */
 class LazyEncodedSequence
     extends ASN1Sequence
 {
-    private byte[] encoded;
+    private static final int ENCODED = 0;
+    private static final int PUBLISHING = 1;
+    private static final int PARSED = 2;
+
+    private static final AtomicIntegerFieldUpdater<LazyEncodedSequence> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(LazyEncodedSequence.class, "state");
+
+    private volatile int state;
+    // only cleared once the elements have been published
+    private volatile byte[] encoded;
 
     LazyEncodedSequence(byte[] encoded) throws IOException
     {
@@ -20,45 +34,46 @@ class LazyEncodedSequence
         this.encoded = encoded;
     }
 
-    public synchronized ASN1Encodable getObjectAt(int index)
+    public ASN1Encodable getObjectAt(int index)
     {
         force();
 
         return super.getObjectAt(index);
     }
 
-    public synchronized Enumeration getObjects()
+    public Enumeration getObjects()
     {
-        if (null != encoded)
+        byte[] enc = encoded;
+        if (null != enc)
         {
-            return new LazyConstructionEnumeration(encoded);
+            return new LazyConstructionEnumeration(enc);
         }
 
         return super.getObjects();
     }
 
-    public synchronized int hashCode()
+    public int hashCode()
     {
         force();
 
         return super.hashCode();
     }
 
-    public synchronized Iterator<ASN1Encodable> iterator()
+    public Iterator<ASN1Encodable> iterator()
     {
         force();
 
         return super.iterator();
     }
 
-    public synchronized int size()
+    public int size()
     {
         force();
 
         return super.size();
     }
 
-    public synchronized ASN1Encodable[] toArray()
+    public ASN1Encodable[] toArray()
     {
         force();
 
@@ -72,22 +87,24 @@ class LazyEncodedSequence
         return super.toArrayInternal();
     }
 
-    synchronized int encodedLength()
+    int encodedLength()
         throws IOException
     {
-        if (null != encoded)
+        byte[] enc = encoded;
+        if (null != enc)
         {
-            return 1 + StreamUtil.calculateBodyLength(encoded.length) + encoded.length;
+            return 1 + StreamUtil.calculateBodyLength(enc.length) + enc.length;
         }
 
         return super.toDLObject().encodedLength();
     }
 
-    synchronized void encode(ASN1OutputStream out, boolean withTag) throws IOException
+    void encode(ASN1OutputStream out, boolean withTag) throws IOException
     {
-        if (null != encoded)
+        byte[] enc = encoded;
+        if (null != enc)
         {
-            out.writeEncoded(withTag, BERTags.SEQUENCE | BERTags.CONSTRUCTED, encoded);
+            out.writeEncoded(withTag, BERTags.SEQUENCE | BERTags.CONSTRUCTED, enc);
         }
         else
         {
@@ -95,14 +112,14 @@ class LazyEncodedSequence
         }
     }
 
-    synchronized ASN1Primitive toDERObject()
+    ASN1Primitive toDERObject()
     {
         force();
 
         return super.toDERObject();
     }
 
-    synchronized ASN1Primitive toDLObject()
+    ASN1Primitive toDLObject()
     {
         force();
 
@@ -111,18 +128,35 @@ class LazyEncodedSequence
 
     private void force()
     {
-        if (null != encoded)
+        if (PARSED == state)
+        {
+            return;
+        }
+
+        byte[] enc = encoded;
+        if (null != enc)
         {
             ASN1EncodableVector v = new ASN1EncodableVector();
 
-            Enumeration en = new LazyConstructionEnumeration(encoded);
+            Enumeration en = new LazyConstructionEnumeration(enc);
             while (en.hasMoreElements())
             {
                 v.add((ASN1Primitive)en.nextElement());
             }
 
-            this.elements = v.takeElements();
-            this.encoded = null;
+            if (STATE.compareAndSet(this, ENCODED, PUBLISHING))
+            {
+                this.elements = v.takeElements();
+                this.state = PARSED;
+                this.encoded = null;
+                return;
+            }
+        }
+
+        // another reader won the race, it has finished parsing and is only storing its result
+        while (PARSED != state)
+        {
+            Thread.yield();
         }
     }
 }
@@ -0,0 +1,171 @@
+package org.spongycastle.asn1;
+
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Note: this class is for processing DER/DL encoded sets only.
+ * <p>
+ * The elements are published once and without locking: readers that find the set still
+ * encoded parse it themselves, the first one to finish hands its elements over with a
+ * compare-and-set, and every later reader only pays for a volatile read.
+ */
+class LazyEncodedSet
+    extends ASN1Set
+{
+    private static final int ENCODED = 0;
+    private static final int PUBLISHING = 1;
+    private static final int PARSED = 2;
+
+    private static final AtomicIntegerFieldUpdater<LazyEncodedSet> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(LazyEncodedSet.class, "state");
+
+    private volatile int state;
+    // only cleared once the elements have been published
+    private volatile byte[] encoded;
+    // true if the contents are known to be DER, elements included and in DER order
+    private final boolean isDER;
+
+    LazyEncodedSet(byte[] encoded) throws IOException
+    {
+        this(encoded, false);
+    }
+
+    LazyEncodedSet(byte[] encoded, boolean isDER)
+    {
+        // NOTE: Initially, the actual 'elements' will be empty
+        super();
+
+        this.encoded = encoded;
+        this.isDER = isDER;
+    }
+
+    public ASN1Encodable getObjectAt(int index)
+    {
+        force();
+
+        return super.getObjectAt(index);
+    }
+
+    public Enumeration getObjects()
+    {
+        byte[] enc = encoded;
+        if (null != enc)
+        {
+            return new LazyConstructionEnumeration(enc);
+        }
+
+        return super.getObjects();
+    }
+
+    public int hashCode()
+    {
+        force();
+
+        return super.hashCode();
+    }
+
+    public Iterator<ASN1Encodable> iterator()
+    {
+        force();
+
+        return super.iterator();
+    }
+
+    public int size()
+    {
+        force();
+
+        return super.size();
+    }
+
+    public ASN1Encodable[] toArray()
+    {
+        force();
+
+        return super.toArray();
+    }
+
+    int encodedLength()
+        throws IOException
+    {
+        byte[] enc = encoded;
+        if (null != enc)
+        {
+            return 1 + StreamUtil.calculateBodyLength(enc.length) + enc.length;
+        }
+
+        return super.toDLObject().encodedLength();
+    }
+
+    void encode(ASN1OutputStream out, boolean withTag) throws IOException
+    {
+        byte[] enc = encoded;
+        if (null != enc)
+        {
+            out.writeEncoded(withTag, BERTags.SET | BERTags.CONSTRUCTED, enc);
+        }
+        else
+        {
+            super.toDLObject().encode(out, withTag);
+        }
+    }
+
+    ASN1Primitive toDERObject()
+    {
+        if (isDER && null != encoded)
+        {
+            // the encoding, or the DL form of its parsed elements, is already DER
+            return this;
+        }
+
+        force();
+
+        return super.toDERObject();
+    }
+
+    ASN1Primitive toDLObject()
+    {
+        force();
+
+        return super.toDLObject();
+    }
+
+    private void force()
+    {
+        if (PARSED == state)
+        {
+            return;
+        }
+
+        byte[] enc = encoded;
+        if (null != enc)
+        {
+            ASN1EncodableVector v = new ASN1EncodableVector();
+
+            Enumeration en = new LazyConstructionEnumeration(enc);
+            while (en.hasMoreElements())
+            {
+                v.add((ASN1Primitive)en.nextElement());
+            }
+
+            if (STATE.compareAndSet(this, ENCODED, PUBLISHING))
+            {
+                // the encoding keeps the sender's order, which need not be the DER order
+                this.elements = v.takeElements();
+                this.isSorted = isDER || elements.length < 2;
+                this.state = PARSED;
+                this.encoded = null;
+                return;
+            }
+        }
+
+        // another reader won the race, it has finished parsing and is only storing its result
+        while (PARSED != state)
+        {
+            Thread.yield();
+        }
+    }
+}
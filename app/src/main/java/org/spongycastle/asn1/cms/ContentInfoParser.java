@@ -0,0 +1,47 @@
+package org.spongycastle.asn1.cms;
+
+import org.spongycastle.asn1.ASN1Encodable;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1SequenceParser;
+import org.spongycastle.asn1.ASN1TaggedObjectParser;
+
+import java.io.IOException;
+
+/**
+ * Parser for <a href="https://tools.ietf.org/html/rfc5652#section-3">RFC 5652</a> {@link ContentInfo} object.
+ * <pre>
+ * ContentInfo ::= SEQUENCE {
+ *     contentType ContentType,
+ *     content [0] EXPLICIT ANY DEFINED BY contentType OPTIONAL }
+ * </pre>
+ */
+public class ContentInfoParser {
+    private ASN1ObjectIdentifier contentType;
+    private ASN1TaggedObjectParser content;
+
+    public ContentInfoParser(
+            ASN1SequenceParser seq)
+            throws IOException {
+        contentType = (ASN1ObjectIdentifier) seq.readObject();
+        content = (ASN1TaggedObjectParser) seq.readObject();
+    }
+
+    public ASN1ObjectIdentifier getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Return a parser for the content, which is explicitly tagged [0].
+     *
+     * @param tag the universal tag the content is expected to have.
+     * @return the content parser, or null if the content is absent.
+     */
+    public ASN1Encodable getContent(int tag)
+            throws IOException {
+        if (content != null) {
+            return content.getObjectParser(tag, true);
+        }
+
+        return null;
+    }
+}
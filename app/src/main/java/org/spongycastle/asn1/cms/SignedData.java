@@ -136,6 +136,10 @@ public class SignedData
         return contentInfo;
     }
 
+    public ASN1Set getCertificates() {
+        return certificates;
+    }
+
 
     public ASN1Set getSignerInfos() {
         return signerInfos;
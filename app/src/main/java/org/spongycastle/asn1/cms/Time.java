@@ -9,9 +9,7 @@ import org.spongycastle.asn1.DERGeneralizedTime;
 import org.spongycastle.asn1.DERUTCTime;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.SimpleTimeZone;
 
 /**
  * <a href="http://tools.ietf.org/html/rfc5652#section-11.3">RFC 5652</a>:
@@ -32,6 +30,10 @@ import java.util.SimpleTimeZone;
 public class Time
         extends ASN1Object
         implements ASN1Choice {
+    // 1950-01-01T00:00:00Z and 2050-01-01T00:00:00Z
+    private static final long UTC_TIME_START = -631152000000L;
+    private static final long UTC_TIME_END = 2524608000000L;
+
     ASN1Primitive time;
 
 
@@ -57,18 +59,12 @@ public class Time
      */
     public Time(
             Date time) {
-        SimpleTimeZone tz = new SimpleTimeZone(0, "Z");
-        SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmss");
-
-        dateF.setTimeZone(tz);
-
-        String d = dateF.format(time) + "Z";
-        int year = Integer.parseInt(d.substring(0, 4));
+        long millis = time.getTime();
 
-        if (year < 1950 || year > 2049) {
-            this.time = new DERGeneralizedTime(d);
+        if (millis < UTC_TIME_START || millis >= UTC_TIME_END) {
+            this.time = new DERGeneralizedTime(time);
         } else {
-            this.time = new DERUTCTime(d.substring(2));
+            this.time = new DERUTCTime(time);
         }
     }
 
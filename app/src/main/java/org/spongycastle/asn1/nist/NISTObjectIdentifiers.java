@@ -17,5 +17,5 @@ public interface NISTObjectIdentifiers
     /** 2.16.840.1.101.3.4.2 */
     ASN1ObjectIdentifier    hashAlgs                = nistAlgorithm.branch("2");
     /** 2.16.840.1.101.3.4.2.3 */
-    ASN1ObjectIdentifier    id_sha512               = hashAlgs.branch("3");
+    ASN1ObjectIdentifier    id_sha512               = hashAlgs.branch("3").intern();
 }
\ No newline at end of file
@@ -14,11 +14,11 @@ public interface PKCSObjectIdentifiers {
     /**
      * PKCS#1: 1.2.840.113549.1.1.1
      */
-    ASN1ObjectIdentifier rsaEncryption = pkcs_1.branch("1");
+    ASN1ObjectIdentifier rsaEncryption = pkcs_1.branch("1").intern();
     /**
      * PKCS#1: 1.2.840.113549.1.1.13
      */
-    ASN1ObjectIdentifier sha512WithRSAEncryption = pkcs_1.branch("13");
+    ASN1ObjectIdentifier sha512WithRSAEncryption = pkcs_1.branch("13").intern();
     /**
      * PKCS#7: 1.2.840.113549.1.7.1
      */
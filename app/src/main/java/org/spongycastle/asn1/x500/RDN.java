@@ -8,6 +8,8 @@ import org.spongycastle.asn1.ASN1Primitive;
 import org.spongycastle.asn1.ASN1Set;
 import org.spongycastle.asn1.DERSequence;
 import org.spongycastle.asn1.DERSet;
+import org.spongycastle.asn1.x500.style.IETFUtils;
+import org.spongycastle.util.Arrays;
 
 /**
  * Holding class for a single Relative Distinguished Name (RDN).
@@ -16,6 +18,9 @@ public class RDN
         extends ASN1Object {
     private ASN1Set values;
 
+    private volatile byte[] canonicalForm;
+    private int canonicalHashCode;
+
     private RDN(ASN1Set values) {
         this.values = values;
     }
@@ -85,6 +90,81 @@ public class RDN
         return tmp;
     }
 
+    /**
+     * Return true if the two RDNs have the same attribute types, in the same order, with values
+     * that are equal once canonicalized as described in {@link IETFUtils#canonicalString}.
+     */
+    public boolean canonicalEquals(RDN other) {
+        return this == other || Arrays.areEqual(getCanonicalForm(), other.getCanonicalForm());
+    }
+
+    /**
+     * Return a hash code consistent with {@link #canonicalEquals}: the exclusive or of the hash
+     * codes of each attribute type and its canonical value.
+     */
+    public int canonicalHashCode() {
+        getCanonicalForm();
+
+        return canonicalHashCode;
+    }
+
+    /**
+     * The attribute types and canonical values as one byte array, each type and value written as
+     * a four byte length followed by its UTF-16 code units. It is built on first use, after which
+     * comparing RDNs is an array compare.
+     */
+    private byte[] getCanonicalForm() {
+        byte[] form = canonicalForm;
+        if (form != null) {
+            return form;
+        }
+
+        AttributeTypeAndValue[] atvs = getTypesAndValues();
+        String[] parts = new String[atvs.length * 2];
+        int hashCode = 0;
+        int length = 0;
+
+        for (int i = 0; i != atvs.length; i++) {
+            String type = atvs[i].getType().getId();
+            String value = IETFUtils.canonicalString(atvs[i].getValue());
+
+            hashCode ^= atvs[i].getType().hashCode();
+            hashCode ^= value.hashCode();
+
+            parts[2 * i] = type;
+            parts[2 * i + 1] = value;
+            length += 8 + 2 * (type.length() + value.length());
+        }
+
+        form = new byte[length];
+        int off = 0;
+        for (int i = 0; i != parts.length; i++) {
+            off = writeString(form, off, parts[i]);
+        }
+
+        // the hash is published by the volatile write of the form
+        canonicalHashCode = hashCode;
+        canonicalForm = form;
+
+        return form;
+    }
+
+    private static int writeString(byte[] buf, int off, String s) {
+        int length = s.length();
+
+        buf[off++] = (byte) (length >>> 24);
+        buf[off++] = (byte) (length >>> 16);
+        buf[off++] = (byte) (length >>> 8);
+        buf[off++] = (byte) length;
+
+        for (int i = 0; i != length; i++) {
+            char c = s.charAt(i);
+            buf[off++] = (byte) (c >>> 8);
+            buf[off++] = (byte) c;
+        }
+
+        return off;
+    }
 
     /**
      * <pre>
@@ -31,7 +31,8 @@ public class X500Name
         implements ASN1Choice {
     private static X500NameStyle defaultStyle = BCStyle.INSTANCE;
 
-    private boolean isHashCodeCalculated;
+    // hashCodeValue is written before the volatile flag, so a thread that sees the flag sees the value
+    private volatile boolean isHashCodeCalculated;
     private int hashCodeValue;
 
     private X500NameStyle style;
@@ -162,11 +163,12 @@ public class X500Name
             return hashCodeValue;
         }
 
-        isHashCodeCalculated = true;
+        int hashCode = style.calculateHashCode(this);
 
-        hashCodeValue = style.calculateHashCode(this);
+        hashCodeValue = hashCode;
+        isHashCodeCalculated = true;
 
-        return hashCodeValue;
+        return hashCode;
     }
 
     /**
@@ -188,6 +190,11 @@ public class X500Name
         }
 
         try {
+            // names of the same style with different hash codes can't be equal, and the hash codes are kept
+            if (obj instanceof X500Name && ((X500Name) obj).style == style && hashCode() != obj.hashCode()) {
+                return false;
+            }
+
             return style.areEqual(this, new X500Name(ASN1Sequence.getInstance(((ASN1Encodable) obj).toASN1Primitive())));
         } catch (Exception e) {
             return false;
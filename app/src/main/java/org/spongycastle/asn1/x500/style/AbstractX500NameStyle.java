@@ -8,7 +8,6 @@ import org.spongycastle.asn1.ASN1Encodable;
 import org.spongycastle.asn1.ASN1ObjectIdentifier;
 import org.spongycastle.asn1.ASN1ParsingException;
 import org.spongycastle.asn1.DERUTF8String;
-import org.spongycastle.asn1.x500.AttributeTypeAndValue;
 import org.spongycastle.asn1.x500.RDN;
 import org.spongycastle.asn1.x500.X500Name;
 import org.spongycastle.asn1.x500.X500NameStyle;
@@ -42,12 +41,6 @@ public abstract class AbstractX500NameStyle
         return newTable;
     }
 
-    private int calcHashCode(ASN1Encodable enc)
-    {
-        String value = IETFUtils.canonicalString(enc);
-        return value.hashCode();
-    }
-
     public int calculateHashCode(X500Name name)
     {
         int hashCodeValue = 0;
@@ -56,21 +49,7 @@ public abstract class AbstractX500NameStyle
         // this needs to be order independent, like equals
         for (int i = 0; i != rdns.length; i++)
         {
-            if (rdns[i].isMultiValued())
-            {
-                AttributeTypeAndValue[] atv = rdns[i].getTypesAndValues();
-
-                for (int j = 0; j != atv.length; j++)
-                {
-                    hashCodeValue ^= atv[j].getType().hashCode();
-                    hashCodeValue ^= calcHashCode(atv[j].getValue());
-                }
-            }
-            else
-            {
-                hashCodeValue ^= rdns[i].getFirst().getType().hashCode();
-                hashCodeValue ^= calcHashCode(rdns[i].getFirst().getValue());
-            }
+            hashCodeValue ^= rdns[i].canonicalHashCode();
         }
 
         return hashCodeValue;
@@ -15,25 +15,31 @@ import org.spongycastle.util.encoders.Hex;
 
 import java.io.IOException;
 import java.util.Hashtable;
-import java.util.Vector;
 
 public class IETFUtils {
-    private static String unescape(String elt) {
-        if (elt.length() == 0 || (elt.indexOf('\\') < 0 && elt.indexOf('"') < 0)) {
-            return elt.trim();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Unescape the value held in chars[start..end), trimming spaces that are not escaped. An escaped
+     * hash at the start is kept, so the value is not taken for a hex encoding.
+     */
+    private static String unescape(char[] chars, int start, int end) {
+        if (!hasEscapeOrQuote(chars, start, end)) {
+            return trim(chars, start, end);
         }
 
-        char[] elts = elt.toCharArray();
         boolean escaped = false;
         boolean quoted = false;
-        StringBuffer buf = new StringBuffer(elt.length());
-        int start = 0;
+        StringBuffer buf = new StringBuffer(end - start);
 
         // if it's an escaped hash string and not an actual encoding in string form
         // we need to leave it escaped.
-        if (elts[0] == '\\') {
-            if (elts[1] == '#') {
-                start = 2;
+        if (chars[start] == '\\') {
+            if (start + 1 == end) {
+                throw new IllegalArgumentException("badly formatted directory string");
+            }
+            if (chars[start + 1] == '#') {
+                start += 2;
                 buf.append("\\#");
             }
         }
@@ -42,8 +48,8 @@ public class IETFUtils {
         int lastEscaped = 0;
         char hex1 = 0;
 
-        for (int i = start; i != elts.length; i++) {
-            char c = elts[i];
+        for (int i = start; i != end; i++) {
+            char c = chars[i];
 
             if (c != ' ') {
                 nonWhiteSpaceEncountered = true;
@@ -87,6 +93,16 @@ public class IETFUtils {
         return buf.toString();
     }
 
+    private static boolean hasEscapeOrQuote(char[] chars, int start, int end) {
+        for (int i = start; i != end; i++) {
+            if (chars[i] == '\\' || chars[i] == '"') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private static boolean isHexDigit(char c) {
         return ('0' <= c && c <= '9') || ('a' <= c && c <= 'f') || ('A' <= c && c <= 'F');
     }
@@ -102,93 +118,129 @@ public class IETFUtils {
     }
 
     public static RDN[] rDNsFromString(String name, X500NameStyle x500Style) {
-        X500NameTokenizer nTok = new X500NameTokenizer(name);
         X500NameBuilder builder = new X500NameBuilder(x500Style);
 
-        while (nTok.hasMoreTokens()) {
-            String token = nTok.nextToken();
+        addRDNs(builder, name, x500Style);
 
-            if (token.indexOf('+') > 0) {
-                X500NameTokenizer pTok = new X500NameTokenizer(token, '+');
-                X500NameTokenizer vTok = new X500NameTokenizer(pTok.nextToken(), '=');
-
-                String attr = vTok.nextToken();
+        return builder.build().getRDNs();
+    }
 
-                if (!vTok.hasMoreTokens()) {
+    /**
+     * Parse the RDNs in name and add them to builder, in a single pass over the characters of the
+     * name. A ',' ends an RDN, a '+' an attribute of a multi-valued RDN and the first '=' an
+     * attribute type, unless they are escaped or quoted. Anything following a second '=' in an
+     * attribute value is ignored.
+     */
+    public static void addRDNs(X500NameBuilder builder, String name, X500NameStyle x500Style) {
+        char[] chars = name.toCharArray();
+        int end = chars.length;
+        int pos = 0;
+
+        ASN1ObjectIdentifier[] oids = new ASN1ObjectIdentifier[1];
+        String[] values = new String[1];
+
+        while (true) {
+            int count = 0;
+            char separator;
+
+            do {
+                int attrStart = pos;
+                int attrEnd = nextSeparator(chars, attrStart, end);
+                if (attrEnd == end || chars[attrEnd] != '=') {
                     throw new IllegalArgumentException("badly formatted directory string");
                 }
 
-                String value = vTok.nextToken();
-                ASN1ObjectIdentifier oid = x500Style.attrNameToOID(attr.trim());
+                int valueStart = attrEnd + 1;
+                int valueEnd = nextSeparator(chars, valueStart, end);
 
-                if (pTok.hasMoreTokens()) {
-                    Vector oids = new Vector();
-                    Vector values = new Vector();
-
-                    oids.addElement(oid);
-                    values.addElement(unescape(value));
+                pos = valueEnd;
+                while (pos != end && chars[pos] == '=') {
+                    pos = nextSeparator(chars, pos + 1, end);
+                }
 
-                    while (pTok.hasMoreTokens()) {
-                        vTok = new X500NameTokenizer(pTok.nextToken(), '=');
+                if (count == oids.length) {
+                    oids = growOIDs(oids);
+                    values = growValues(values);
+                }
+                oids[count] = x500Style.attrNameToOID(trim(chars, attrStart, attrEnd));
+                values[count] = unescape(chars, valueStart, valueEnd);
+                count++;
 
-                        attr = vTok.nextToken();
+                separator = pos == end ? 0 : chars[pos++];
+            } while (separator == '+');
 
-                        if (!vTok.hasMoreTokens()) {
-                            throw new IllegalArgumentException("badly formatted directory string");
-                        }
+            if (count == 1) {
+                builder.addRDN(oids[0], values[0]);
+            } else {
+                ASN1ObjectIdentifier[] rdnOIDs = new ASN1ObjectIdentifier[count];
+                String[] rdnValues = new String[count];
 
-                        value = vTok.nextToken();
-                        oid = x500Style.attrNameToOID(attr.trim());
+                System.arraycopy(oids, 0, rdnOIDs, 0, count);
+                System.arraycopy(values, 0, rdnValues, 0, count);
 
+                builder.addMultiValuedRDN(rdnOIDs, rdnValues);
+            }
 
-                        oids.addElement(oid);
-                        values.addElement(unescape(value));
-                    }
+            if (separator != ',') {
+                return;
+            }
+        }
+    }
 
-                    builder.addMultiValuedRDN(toOIDArray(oids), toValueArray(values));
-                } else {
-                    builder.addRDN(oid, unescape(value));
-                }
-            } else {
-                X500NameTokenizer vTok = new X500NameTokenizer(token, '=');
+    /**
+     * Return the index of the next ',', '+' or '=' that is neither escaped nor quoted, or end.
+     */
+    private static int nextSeparator(char[] chars, int pos, int end) {
+        boolean quoted = false;
+        boolean escaped = false;
 
-                String attr = vTok.nextToken();
+        for (; pos != end; pos++) {
+            char c = chars[pos];
 
-                if (!vTok.hasMoreTokens()) {
-                    throw new IllegalArgumentException("badly formatted directory string");
+            if (c == '"') {
+                if (!escaped) {
+                    quoted = !quoted;
                 }
+                escaped = false;
+            } else if (escaped || quoted) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == ',' || c == '+' || c == '=') {
+                break;
+            }
+        }
 
-                String value = vTok.nextToken();
-                ASN1ObjectIdentifier oid = x500Style.attrNameToOID(attr.trim());
+        return pos;
+    }
 
-                builder.addRDN(oid, unescape(value));
-            }
+    private static String trim(char[] chars, int start, int end) {
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
         }
 
-        return builder.build().getRDNs();
+        return new String(chars, start, end - start);
     }
 
-    private static String[] toValueArray(Vector values) {
-        String[] tmp = new String[values.size()];
+    private static ASN1ObjectIdentifier[] growOIDs(ASN1ObjectIdentifier[] oids) {
+        ASN1ObjectIdentifier[] tmp = new ASN1ObjectIdentifier[oids.length * 2];
 
-        for (int i = 0; i != tmp.length; i++) {
-            tmp[i] = (String) values.elementAt(i);
-        }
+        System.arraycopy(oids, 0, tmp, 0, oids.length);
 
         return tmp;
     }
 
-    private static ASN1ObjectIdentifier[] toOIDArray(Vector oids) {
-        ASN1ObjectIdentifier[] tmp = new ASN1ObjectIdentifier[oids.size()];
+    private static String[] growValues(String[] values) {
+        String[] tmp = new String[values.length * 2];
 
-        for (int i = 0; i != tmp.length; i++) {
-            tmp[i] = (ASN1ObjectIdentifier) oids.elementAt(i);
-        }
+        System.arraycopy(values, 0, tmp, 0, values.length);
 
         return tmp;
     }
 
-
     public static ASN1ObjectIdentifier decodeAttrName(
             String name,
             Hashtable lookUp) {
@@ -239,8 +291,9 @@ public class IETFUtils {
                 IETFUtils.appendTypeAndValue(buf, atv[j], oidSymbols);
             }
         } else {
-            if (rdn.getFirst() != null) {
-                IETFUtils.appendTypeAndValue(buf, rdn.getFirst(), oidSymbols);
+            AttributeTypeAndValue first = rdn.getFirst();
+            if (first != null) {
+                IETFUtils.appendTypeAndValue(buf, first, oidSymbols);
             }
         }
     }
@@ -259,37 +312,83 @@ public class IETFUtils {
 
         buf.append('=');
 
-        buf.append(valueToString(typeAndValue.getValue()));
+        appendValue(buf, typeAndValue.getValue());
     }
 
     public static String valueToString(ASN1Encodable value) {
         StringBuffer vBuf = new StringBuffer();
 
-        if (value instanceof ASN1String && !(value instanceof DERUniversalString)) {
-            String v = ((ASN1String) value).getString();
-            if (v.length() > 0 && v.charAt(0) == '#') {
-                vBuf.append('\\');
-            }
+        appendValue(vBuf, value);
 
-            vBuf.append(v);
-        } else {
+        return vBuf.toString();
+    }
+
+    /**
+     * Append the string form of value to buf, escaping as it goes: special characters, a leading
+     * hash in a string value and spaces at either end are preceded by a backslash. Values that are
+     * not strings are written as a hash followed by the hex of their DER encoding.
+     */
+    private static void appendValue(StringBuffer buf, ASN1Encodable value) {
+        if (!(value instanceof ASN1String) || value instanceof DERUniversalString) {
+            byte[] encoding;
             try {
-                vBuf.append('#');
-                vBuf.append(Hex.toHexString(value.toASN1Primitive().getEncoded(ASN1Encoding.DER)));
+                encoding = value.toASN1Primitive().getEncoded(ASN1Encoding.DER);
             } catch (IOException e) {
                 throw new IllegalArgumentException("Other value has no encoded form");
             }
+
+            char[] hex = new char[1 + 2 * encoding.length];
+            hex[0] = '#';
+            for (int i = 0; i != encoding.length; i++) {
+                hex[1 + 2 * i] = HEX_DIGITS[(encoding[i] >>> 4) & 0xf];
+                hex[2 + 2 * i] = HEX_DIGITS[encoding[i] & 0xf];
+            }
+            buf.append(hex);
+
+            return;
         }
 
-        int end = vBuf.length();
-        int index = 0;
+        String v = ((ASN1String) value).getString();
+        int length = v.length();
+        int start = 0;
+
+        if (length > 0 && v.charAt(0) == '#') {
+            buf.append("\\#");
+            start = 1;
+        } else if (length > 1 && v.charAt(0) == '\\' && v.charAt(1) == '#') {
+            // an escaped hash is already in its string form
+            buf.append("\\#");
+            start = 2;
+        } else {
+            int leading = 0;
+            while (leading != length && v.charAt(leading) == ' ') {
+                leading++;
+            }
+
+            if (leading == length) {
+                // spaces only, the last one is escaped twice, as leading and as trailing space
+                for (int i = 0; i != length; i++) {
+                    buf.append(i == length - 1 ? "\\\\ " : "\\ ");
+                }
+
+                return;
+            }
+
+            for (int i = 0; i != leading; i++) {
+                buf.append("\\ ");
+            }
+            start = leading;
+        }
 
-        if (vBuf.length() >= 2 && vBuf.charAt(0) == '\\' && vBuf.charAt(1) == '#') {
-            index += 2;
+        int end = length;
+        while (end > start && v.charAt(end - 1) == ' ') {
+            end--;
         }
 
-        while (index != end) {
-            switch (vBuf.charAt(index)) {
+        // copy the runs between special characters in one go
+        int run = start;
+        for (int i = start; i != end; i++) {
+            switch (v.charAt(i)) {
                 case ',':
                 case '"':
                 case '\\':
@@ -297,35 +396,19 @@ public class IETFUtils {
                 case '=':
                 case '<':
                 case '>':
-                case ';': {
-                    vBuf.insert(index, "\\");
-                    index += 2;
-                    ++end;
+                case ';':
+                    buf.append(v, run, i).append('\\');
+                    run = i;
                     break;
-                }
-                default: {
-                    ++index;
+                default:
                     break;
-                }
-            }
-        }
-
-        int start = 0;
-        if (vBuf.length() > 0) {
-            while (vBuf.length() > start && vBuf.charAt(start) == ' ') {
-                vBuf.insert(start, "\\");
-                start += 2;
             }
         }
+        buf.append(v, run, end);
 
-        int endBuf = vBuf.length() - 1;
-
-        while (endBuf >= 0 && vBuf.charAt(endBuf) == ' ') {
-            vBuf.insert(endBuf, '\\');
-            endBuf--;
+        for (int i = end; i != length; i++) {
+            buf.append("\\ ");
         }
-
-        return vBuf.toString();
     }
 
     public static String canonicalize(String s) {
@@ -395,45 +478,6 @@ public class IETFUtils {
     }
 
     public static boolean rDNAreEqual(RDN rdn1, RDN rdn2) {
-        if (rdn1.size() != rdn2.size()) {
-            return false;
-        }
-
-        AttributeTypeAndValue[] atvs1 = rdn1.getTypesAndValues();
-        AttributeTypeAndValue[] atvs2 = rdn2.getTypesAndValues();
-
-        if (atvs1.length != atvs2.length) {
-            return false;
-        }
-
-        for (int i = 0; i != atvs1.length; i++) {
-            if (!atvAreEqual(atvs1[i], atvs2[i])) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private static boolean atvAreEqual(AttributeTypeAndValue atv1, AttributeTypeAndValue atv2) {
-        if (atv1 == atv2) {
-            return true;
-        }
-
-        if (null == atv1 || null == atv2) {
-            return false;
-        }
-
-        ASN1ObjectIdentifier o1 = atv1.getType();
-        ASN1ObjectIdentifier o2 = atv2.getType();
-
-        if (!o1.equals(o2)) {
-            return false;
-        }
-
-        String v1 = canonicalString(atv1.getValue());
-        String v2 = canonicalString(atv2.getValue());
-
-        return v1.equals(v2);
+        return rdn1.canonicalEquals(rdn2);
     }
 }
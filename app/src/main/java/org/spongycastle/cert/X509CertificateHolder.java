@@ -1,6 +1,7 @@
 package org.spongycastle.cert;
 
 import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.x500.X500Name;
 import org.spongycastle.asn1.x509.Certificate;
 import org.spongycastle.asn1.x509.Extension;
 import org.spongycastle.asn1.x509.Extensions;
@@ -11,6 +12,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.util.Date;
 
 /**
@@ -59,6 +61,24 @@ public class X509CertificateHolder
     }
 
 
+    /**
+     * Return the serial number of this certificate.
+     *
+     * @return the serial number.
+     */
+    public BigInteger getSerialNumber() {
+        return x509Certificate.getSerialNumber().getValue();
+    }
+
+    /**
+     * Return the issuer of this certificate.
+     *
+     * @return the certificate issuer.
+     */
+    public X500Name getIssuer() {
+        return x509Certificate.getIssuer();
+    }
+
     /**
      * Return the SubjectPublicKeyInfo describing the public key this certificate is carrying.
      *
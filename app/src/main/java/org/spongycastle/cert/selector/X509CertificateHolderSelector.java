@@ -35,10 +35,18 @@ public class X509CertificateHolderSelector
         this.subjectKeyId = subjectKeyId;
     }
 
+    public X500Name getIssuer() {
+        return issuer;
+    }
+
     public BigInteger getSerialNumber() {
         return serialNumber;
     }
 
+    public byte[] getSubjectKeyIdentifier() {
+        return Arrays.clone(subjectKeyId);
+    }
+
     public int hashCode() {
         int code = Arrays.hashCode(subjectKeyId);
 
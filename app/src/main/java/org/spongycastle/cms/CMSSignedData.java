@@ -1,12 +1,13 @@
 package org.spongycastle.cms;
 
-import org.spongycastle.asn1.ASN1InputStream;
 import org.spongycastle.asn1.ASN1ObjectIdentifier;
 import org.spongycastle.asn1.ASN1Set;
 import org.spongycastle.asn1.cms.ContentInfo;
 import org.spongycastle.asn1.cms.SignedData;
 import org.spongycastle.asn1.cms.SignerInfo;
+import org.spongycastle.cert.X509CertificateHolder;
 import org.spongycastle.util.Encodable;
+import org.spongycastle.util.Store;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,6 +52,8 @@ public class CMSSignedData
     ContentInfo contentInfo;
     CMSTypedData signedContent;
     SignerInformationStore signerInfoStore;
+    // built on first use; volatile so that a CMSSignedData shared between threads publishes it safely
+    private volatile Store<X509CertificateHolder> certificateStore;
 
     private Map hashes;
 
@@ -64,7 +67,7 @@ public class CMSSignedData
             CMSProcessable signedContent,
             InputStream sigData)
             throws CMSException {
-        this(signedContent, CMSUtils.readContentInfo(new ASN1InputStream(sigData)));
+        this(signedContent, CMSUtils.readContentInfo(sigData));
     }
 
     public CMSSignedData(
@@ -91,6 +94,34 @@ public class CMSSignedData
         this.signedData = getSignedData();
     }
 
+    /**
+     * Content with detached signature, digests precomputed
+     *
+     * @param hashes  a map of precomputed digests for content indexed by name of hash.
+     * @param sigData the signature object.
+     */
+    public CMSSignedData(
+            Map hashes,
+            InputStream sigData)
+            throws CMSException {
+        this(hashes, CMSUtils.readContentInfo(sigData));
+    }
+
+    /**
+     * Content with detached signature, digests precomputed
+     *
+     * @param hashes  a map of precomputed digests for content indexed by name of hash.
+     * @param sigData the signature object.
+     */
+    public CMSSignedData(
+            Map hashes,
+            ContentInfo sigData)
+            throws CMSException {
+        this.hashes = hashes;
+        this.contentInfo = sigData;
+        this.signedData = getSignedData();
+    }
+
 
     private SignedData getSignedData()
             throws CMSException {
@@ -132,4 +163,22 @@ public class CMSSignedData
         return signerInfoStore;
     }
 
-}
\ No newline at end of file
+    /**
+     * Return any X.509 certificate objects in this SignedData structure as a Store of X509CertificateHolder objects.
+     * <p>
+     * The store is built on first use and indexes the certificates by issuer and serial number and
+     * by subject key identifier, so looking up the certificate for each signer's SignerId does not
+     * scan the whole set.
+     *
+     * @return a Store of X509CertificateHolder objects.
+     */
+    public Store<X509CertificateHolder> getCertificates() {
+        Store<X509CertificateHolder> store = certificateStore;
+        if (store == null) {
+            // a race only builds the same index twice
+            store = certificateStore = HELPER.getCertificates(signedData.getCertificates());
+        }
+
+        return store;
+    }
+}
@@ -0,0 +1,214 @@
+package org.spongycastle.cms;
+
+import org.spongycastle.asn1.ASN1Encodable;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1OctetStringParser;
+import org.spongycastle.asn1.ASN1SequenceParser;
+import org.spongycastle.asn1.ASN1SetParser;
+import org.spongycastle.asn1.ASN1StreamParser;
+import org.spongycastle.asn1.BERTags;
+import org.spongycastle.asn1.cms.ContentInfoParser;
+import org.spongycastle.asn1.cms.SignedDataParser;
+import org.spongycastle.asn1.cms.SignerInfo;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.operator.DigestCalculator;
+import org.spongycastle.operator.DigestCalculatorProvider;
+import org.spongycastle.operator.OperatorCreationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsing class for a CMS Signed Data object from an input stream.
+ * <p>
+ * Unlike {@link CMSSignedData} the structure is never held in memory as a whole. The
+ * encapsulated content is handed out as a stream which feeds the digest calculators for the
+ * signers' digest algorithms as it is read, the certificates and CRLs are skipped, and only
+ * the SignerInfos are built into objects, so content of any size can be verified in constant
+ * memory. As the structure is read in order, the content has to be read before the signers
+ * are asked for - getSignerInfos() reads whatever is left of it.
+ * <pre>
+ *      CMSSignedDataParser sp = new CMSSignedDataParser(digestCalculatorProvider, inputStream);
+ *      CMSTypedStream      content = sp.getSignedContent();
+ *
+ *      copy(content.getContentStream(), outputStream);
+ *
+ *      Iterator it = sp.getSignerInfos().getSigners().iterator();
+ *
+ *      while (it.hasNext())
+ *      {
+ *          SignerInformation signer = (SignerInformation)it.next();
+ *
+ *          if (signer.verify(new JcaSimpleSignerInfoVerifierBuilder().build(cert)))
+ *          {
+ *              verified++;
+ *          }
+ *      }
+ * </pre>
+ */
+public class CMSSignedDataParser {
+    private final SignedDataParser signedData;
+    private final ASN1ObjectIdentifier signedContentType;
+    private final CMSTypedStream signedContent;
+    private final Map digests = new HashMap();
+
+    private SignerInformationStore signerInfoStore;
+
+    /**
+     * base constructor - with encapsulated content
+     */
+    public CMSSignedDataParser(
+            DigestCalculatorProvider digestCalculatorProvider,
+            InputStream sigData)
+            throws CMSException {
+        this(digestCalculatorProvider, null, sigData);
+    }
+
+    /**
+     * base constructor
+     *
+     * @param digestCalculatorProvider for generating accumulating digests
+     * @param signedContent            the content that was signed, for a detached signature.
+     * @param sigData                  the signature object stream.
+     */
+    public CMSSignedDataParser(
+            DigestCalculatorProvider digestCalculatorProvider,
+            CMSTypedStream signedContent,
+            InputStream sigData)
+            throws CMSException {
+        try {
+            ContentInfoParser contentInfo = new ContentInfoParser((ASN1SequenceParser) new ASN1StreamParser(sigData).readObject());
+
+            this.signedData = SignedDataParser.getInstance(contentInfo.getContent(BERTags.SEQUENCE));
+
+            ASN1SetParser digAlgs = signedData.getDigestAlgorithms();
+            ASN1Encodable o;
+
+            while ((o = digAlgs.readObject()) != null) {
+                AlgorithmIdentifier algId = AlgorithmIdentifier.getInstance(o);
+
+                try {
+                    DigestCalculator calculator = digestCalculatorProvider.get(algId);
+
+                    if (calculator != null) {
+                        this.digests.put(algId.getAlgorithm(), calculator);
+                    }
+                } catch (OperatorCreationException e) {
+                    //  ignore ones we don't know about, their signers will not verify
+                }
+            }
+
+            //
+            // If the message is simply a certificate chain message getContent() may return null.
+            //
+            ContentInfoParser cont = signedData.getEncapContentInfo();
+            ASN1Encodable octs = cont.getContent(BERTags.OCTET_STRING);
+
+            if (octs != null && !(octs instanceof ASN1OctetStringParser)) {
+                throw new CMSException("encapsulated content is not an OCTET STRING");
+            }
+
+            this.signedContentType = cont.getContentType();
+
+            if (signedContent == null && octs != null) {
+                signedContent = new CMSTypedStream(signedContentType, ((ASN1OctetStringParser) octs).getOctetStream());
+            } else if (octs != null) {
+                // a detached signature should not carry the content as well, move past it
+                new CMSTypedStream(signedContentType, ((ASN1OctetStringParser) octs).getOctetStream()).drain();
+            }
+
+            if (signedContent != null) {
+                this.signedContent = new CMSTypedStream(signedContent.getContentType(),
+                        CMSUtils.attachDigestsToInputStream(digests.values(), signedContent.getContentStream()));
+            } else {
+                this.signedContent = null;
+            }
+        } catch (IOException e) {
+            throw new CMSException("io exception: " + e.getMessage(), e);
+        } catch (ClassCastException e) {
+            throw new CMSException("Malformed content.", e);
+        } catch (IllegalArgumentException e) {
+            throw new CMSException("Malformed content.", e);
+        }
+    }
+
+    /**
+     * Return the signed content, the stream updates the signers' digests as it is read.
+     *
+     * @return the content, or null if there is neither encapsulated nor detached content.
+     */
+    public CMSTypedStream getSignedContent() {
+        return signedContent;
+    }
+
+    /**
+     * return the collection of signers that are associated with the
+     * signatures for the message. Any content not yet read is read first.
+     *
+     * @throws CMSException if the signer infos cannot be read.
+     */
+    public SignerInformationStore getSignerInfos()
+            throws CMSException {
+        if (signerInfoStore == null) {
+            try {
+                if (signedContent != null) {
+                    signedContent.drain();
+                }
+
+                skipSet(signedData.getCertificates());
+                skipSet(signedData.getCrls());
+
+                Map hashes = new HashMap();
+
+                if (signedContent != null) {
+                    for (Iterator it = digests.entrySet().iterator(); it.hasNext(); ) {
+                        Map.Entry entry = (Map.Entry) it.next();
+
+                        hashes.put(entry.getKey(), ((DigestCalculator) entry.getValue()).getDigest());
+                    }
+                }
+
+                List signerInfos = new ArrayList();
+                ASN1SetParser s = signedData.getSignerInfos();
+                ASN1Encodable o;
+
+                while ((o = s.readObject()) != null) {
+                    SignerInfo info = SignerInfo.getInstance(o.toASN1Primitive());
+                    byte[] hash = (byte[]) hashes.get(info.getDigestAlgorithm().getAlgorithm());
+
+                    signerInfos.add(new SignerInformation(info, signedContentType, null, hash));
+                }
+
+                signerInfoStore = new SignerInformationStore(signerInfos);
+            } catch (IOException e) {
+                throw new CMSException("io exception: " + e.getMessage(), e);
+            } catch (ClassCastException e) {
+                throw new CMSException("Malformed content.", e);
+            } catch (IllegalArgumentException e) {
+                throw new CMSException("Malformed content.", e);
+            }
+        }
+
+        return signerInfoStore;
+    }
+
+    /**
+     * Read past a set of certificates or CRLs one element at a time, so at most one of them is
+     * ever in memory.
+     */
+    private static void skipSet(ASN1SetParser set)
+            throws IOException {
+        if (set != null) {
+            ASN1Encodable o;
+
+            while ((o = set.readObject()) != null) {
+                o.toASN1Primitive();
+            }
+        }
+    }
+}
@@ -332,6 +332,7 @@ public class CMSSignedDataStreamGenerator
             _eiGen.close();
 
             digests.clear();    // clear the current preserved digest state
+            generatedSignerInfos.clear();
 
             if (certs.size() != 0) {
                 ASN1Set certSet = CMSUtils.createBerSetFromList(certs);
@@ -359,7 +360,10 @@ public class CMSSignedDataStreamGenerator
 
 
                 try {
-                    signerInfos.add(sigGen.generate(_contentOID));
+                    SignerInfo signerInfo = sigGen.generate(_contentOID);
+
+                    signerInfos.add(signerInfo);
+                    generatedSignerInfos.add(signerInfo);
 
                     byte[] calculatedDigest = sigGen.getCalculatedDigest();
 
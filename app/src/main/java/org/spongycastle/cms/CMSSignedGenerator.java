@@ -1,6 +1,7 @@
 package org.spongycastle.cms;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -13,6 +14,7 @@ public class CMSSignedGenerator {
     protected List _signers = new ArrayList();
     protected List signerGens = new ArrayList();
     protected Map digests = new HashMap();
+    protected List generatedSignerInfos = new ArrayList();
 
     /**
      * base constructor
@@ -42,4 +44,24 @@ public class CMSSignedGenerator {
     public void addSignerInfoGenerator(SignerInfoGenerator infoGen) {
         signerGens.add(infoGen);
     }
+
+    /**
+     * Return a map of oids and byte arrays representing the digests calculated on the content during
+     * the last generate.
+     *
+     * @return a map of oids (as String objects) and byte[] representing digests.
+     */
+    public Map getGeneratedDigests() {
+        return new HashMap(digests);
+    }
+
+    /**
+     * Return the SignerInfo structures produced by the signer info generators during the last
+     * generate, in the order the generators were added.
+     *
+     * @return a list of SignerInfo objects.
+     */
+    public List getGeneratedSignerInfos() {
+        return Collections.unmodifiableList(new ArrayList(generatedSignerInfos));
+    }
 }
\ No newline at end of file
@@ -1,11 +1,21 @@
 package org.spongycastle.cms;
 
+import org.spongycastle.asn1.ASN1Encodable;
 import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1Primitive;
+import org.spongycastle.asn1.ASN1Sequence;
+import org.spongycastle.asn1.ASN1Set;
 import org.spongycastle.asn1.DERNull;
 import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.asn1.x509.Certificate;
+import org.spongycastle.cert.X509CertificateHolder;
+import org.spongycastle.util.Store;
 
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 class CMSSignedHelper {
@@ -46,4 +56,21 @@ class CMSSignedHelper {
         return algId;
     }
 
+    Store<X509CertificateHolder> getCertificates(ASN1Set certSet) {
+        List certList = new ArrayList();
+
+        if (certSet != null) {
+            for (Enumeration en = certSet.getObjects(); en.hasMoreElements(); ) {
+                ASN1Primitive obj = ((ASN1Encodable) en.nextElement()).toASN1Primitive();
+
+                // other certificate formats in the CertificateChoices are ignored
+                if (obj instanceof ASN1Sequence) {
+                    certList.add(new X509CertificateHolder(Certificate.getInstance(obj)));
+                }
+            }
+        }
+
+        return new IndexedCertificateStore(certList);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package org.spongycastle.cms;
+
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.spongycastle.util.io.Streams;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The content of a CMS structure as a stream, tagged with its content type.
+ */
+public class CMSTypedStream {
+    private static final int BUF_SIZ = 32 * 1024;
+
+    private final ASN1ObjectIdentifier oid;
+
+    protected InputStream in;
+
+    public CMSTypedStream(
+            InputStream in) {
+        this(PKCSObjectIdentifiers.data, in, BUF_SIZ);
+    }
+
+    public CMSTypedStream(
+            ASN1ObjectIdentifier oid,
+            InputStream in) {
+        this(oid, in, BUF_SIZ);
+    }
+
+    public CMSTypedStream(
+            ASN1ObjectIdentifier oid,
+            InputStream in,
+            int bufSize) {
+        this.oid = oid;
+        this.in = new FullReaderStream(new BufferedInputStream(in, bufSize));
+    }
+
+    public ASN1ObjectIdentifier getContentType() {
+        return oid;
+    }
+
+    public InputStream getContentStream() {
+        return in;
+    }
+
+    /**
+     * Read the rest of the content and close the stream, unless it has been closed already.
+     */
+    public void drain()
+            throws IOException {
+        if (in instanceof FullReaderStream && ((FullReaderStream) in).closed) {
+            return;
+        }
+
+        Streams.drain(in);
+        in.close();
+    }
+
+    private static class FullReaderStream extends FilterInputStream {
+        private boolean closed;
+
+        FullReaderStream(InputStream in) {
+            super(in);
+        }
+
+        public void close()
+                throws IOException {
+            closed = true;
+            super.close();
+        }
+
+        public int read(byte[] buf, int off, int len)
+                throws IOException {
+            int totalRead = Streams.readFully(super.in, buf, off, len);
+            return totalRead > 0 ? totalRead : -1;
+        }
+    }
+}
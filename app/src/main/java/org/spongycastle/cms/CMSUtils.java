@@ -9,6 +9,8 @@ import org.spongycastle.asn1.BERSet;
 import org.spongycastle.asn1.DERNull;
 import org.spongycastle.asn1.cms.ContentInfo;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.operator.DigestCalculator;
+import org.spongycastle.util.io.TeeInputStream;
 import org.spongycastle.util.io.TeeOutputStream;
 
 import java.io.IOException;
@@ -41,8 +43,9 @@ class CMSUtils {
     static ContentInfo readContentInfo(
             InputStream input)
             throws CMSException {
-        // enforce some limit checking
-        return readContentInfo(new ASN1InputStream(input));
+        // enforce some limit checking, and only decode the SETs of certificates and
+        // signer infos when they are actually looked at
+        return readContentInfo(new ASN1InputStream(input, true));
     }
 
     static ASN1Set createBerSetFromList(List derObjects) {
@@ -87,6 +90,16 @@ class CMSUtils {
         }
     }
 
+    static InputStream attachDigestsToInputStream(Collection digests, InputStream s) {
+        InputStream result = s;
+        Iterator it = digests.iterator();
+        while (it.hasNext()) {
+            DigestCalculator digest = (DigestCalculator) it.next();
+            result = new TeeInputStream(result, digest.getOutputStream());
+        }
+        return result;
+    }
+
     static OutputStream attachSignersToOutputStream(Collection signers, OutputStream s) {
         OutputStream result = s;
         Iterator it = signers.iterator();
@@ -10,6 +10,7 @@ import org.spongycastle.asn1.cms.CMSAttributes;
 import org.spongycastle.asn1.cms.Time;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.Hashtable;
@@ -22,6 +23,8 @@ public class DefaultSignedAttributeTableGenerator
         implements CMSAttributeTableGenerator {
     private final Hashtable table;
 
+    private volatile SignedAttributeTemplate template;
+
     /**
      * Initialise to use all defaults
      */
@@ -79,6 +82,55 @@ public class DefaultSignedAttributeTableGenerator
         return std;
     }
 
+    /**
+     * Return the DER encoding of the SET of signed attributes createStandardAttributeTable() builds
+     * for the passed in parameters, with the given signing time.
+     * <p>
+     * Between calls with the same content type, algorithms and digest length only the signing time
+     * and the message digest change, so the first encoding is kept as a template and later calls
+     * just write those two values into a copy of it.
+     *
+     * @param parameters  source parameters for table generation.
+     * @param signingTime the signing time, encoded to the second.
+     * @return the DER encoded attribute set.
+     * @throws IOException if the attributes cannot be encoded.
+     */
+    public byte[] getEncodedAttributes(Map parameters, Date signingTime)
+            throws IOException {
+        byte[] digest = (byte[]) parameters.get(DIGEST);
+
+        SignedAttributeTemplate t = template;
+        if (t != null && t.matches(parameters)) {
+            byte[] encoded = t.encode(signingTime.getTime(), digest);
+            if (encoded != null) {
+                return encoded;
+            }
+        }
+
+        Hashtable std = createStandardAttributeTable(parameters);
+
+        // a subclass or a table of fixed attributes may not produce the standard shape every time
+        if (getClass() == DefaultSignedAttributeTableGenerator.class && table.isEmpty()) {
+            t = SignedAttributeTemplate.create(parameters, std);
+            if (t != null) {
+                template = t;
+
+                byte[] encoded = t.encode(signingTime.getTime(), digest);
+                if (encoded != null) {
+                    return encoded;
+                }
+            }
+        }
+
+        if (!table.containsKey(CMSAttributes.signingTime)) {
+            Attribute attr = new Attribute(CMSAttributes.signingTime,
+                    new DERSet(new Time(signingTime)));
+            std.put(attr.getAttrType(), attr);
+        }
+
+        return SignedAttributeTemplate.encode(std);
+    }
+
     /**
      * @param parameters source parameters
      * @return the populated attribute table
@@ -0,0 +1,134 @@
+package org.spongycastle.cms;
+
+import org.spongycastle.asn1.ASN1OctetString;
+import org.spongycastle.asn1.x500.X500Name;
+import org.spongycastle.asn1.x500.style.BCStyle;
+import org.spongycastle.asn1.x509.Extension;
+import org.spongycastle.cert.X509CertificateHolder;
+import org.spongycastle.cert.selector.X509CertificateHolderSelector;
+import org.spongycastle.util.Selector;
+import org.spongycastle.util.Store;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A store of X509CertificateHolder objects indexed by issuer and serial number and by subject key
+ * identifier, so that the certificate for a SignerId is found with a hash lookup instead of a
+ * match against every certificate in the store.
+ * <p>
+ * The index only narrows the candidates, every certificate returned has still been passed to the
+ * selector's match method. Selectors that are not a SignerId or X509CertificateHolderSelector are
+ * matched against all the certificates.
+ */
+class IndexedCertificateStore
+        implements Store<X509CertificateHolder> {
+    private final List all;
+    private final Map byIssuerAndSerial = new HashMap();
+    private final Map bySubjectKeyId = new HashMap();
+
+    // certificates without the extension are matched on a key id calculated from their public key
+    private final boolean calculatedKeyIds;
+
+    IndexedCertificateStore(Collection<X509CertificateHolder> certificates) {
+        this.all = new ArrayList(certificates);
+
+        boolean calculatedKeyIds = false;
+
+        for (int i = 0; i != all.size(); i++) {
+            X509CertificateHolder cert = (X509CertificateHolder) all.get(i);
+
+            add(byIssuerAndSerial, issuerAndSerialKey(cert.getIssuer(), cert.getSerialNumber()), cert);
+
+            Extension ext = cert.getExtension(Extension.subjectKeyIdentifier);
+            if (ext != null) {
+                byte[] subjectKeyId = ASN1OctetString.getInstance(ext.getParsedValue()).getOctets();
+
+                add(bySubjectKeyId, new X509CertificateHolderSelector(null, null, subjectKeyId), cert);
+            } else {
+                calculatedKeyIds = true;
+            }
+        }
+
+        // assigned once, so the final field guarantees every thread sees the finished index
+        this.calculatedKeyIds = calculatedKeyIds;
+    }
+
+    public Collection<X509CertificateHolder> getMatches(Selector<X509CertificateHolder> selector) {
+        if (selector == null) {
+            return new ArrayList(all);
+        }
+
+        List candidates = findCandidates(selector);
+        List matches = new ArrayList(candidates.size());
+
+        for (int i = 0; i != candidates.size(); i++) {
+            Object cert = candidates.get(i);
+
+            if (selector.match((X509CertificateHolder) cert)) {
+                matches.add(cert);
+            }
+        }
+
+        return matches;
+    }
+
+    private List findCandidates(Selector selector) {
+        X500Name issuer;
+        BigInteger serialNumber;
+        byte[] subjectKeyId;
+
+        if (selector instanceof SignerId) {
+            SignerId sid = (SignerId) selector;
+
+            issuer = sid.getIssuer();
+            serialNumber = sid.getSerialNumber();
+            subjectKeyId = sid.getSubjectKeyIdentifier();
+        } else if (selector instanceof X509CertificateHolderSelector) {
+            X509CertificateHolderSelector certSelector = (X509CertificateHolderSelector) selector;
+
+            issuer = certSelector.getIssuer();
+            serialNumber = certSelector.getSerialNumber();
+            subjectKeyId = certSelector.getSubjectKeyIdentifier();
+        } else {
+            return all;
+        }
+
+        // as in X509CertificateHolderSelector.match(), the serial number takes precedence
+        List candidates;
+        if (serialNumber != null) {
+            if (issuer == null) {
+                return new ArrayList();
+            }
+            candidates = (List) byIssuerAndSerial.get(issuerAndSerialKey(issuer, serialNumber));
+        } else if (subjectKeyId != null && !calculatedKeyIds) {
+            candidates = (List) bySubjectKeyId.get(new X509CertificateHolderSelector(null, null, subjectKeyId));
+        } else {
+            return all;
+        }
+
+        return candidates == null ? new ArrayList() : candidates;
+    }
+
+    /**
+     * Issuers are compared in the default style whatever style they were built with, so that they
+     * hash consistently.
+     */
+    private static X509CertificateHolderSelector issuerAndSerialKey(X500Name issuer, BigInteger serialNumber) {
+        return new X509CertificateHolderSelector(X500Name.getInstance(BCStyle.INSTANCE, issuer), serialNumber, null);
+    }
+
+    private static void add(Map index, Object key, X509CertificateHolder cert) {
+        List list = (List) index.get(key);
+        if (list == null) {
+            list = new ArrayList(1);
+            index.put(key, list);
+        }
+
+        list.add(cert);
+    }
+}
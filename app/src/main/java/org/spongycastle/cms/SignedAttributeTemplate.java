@@ -0,0 +1,133 @@
+package org.spongycastle.cms;
+
+import org.spongycastle.asn1.ASN1Encodable;
+import org.spongycastle.asn1.ASN1Encoding;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1UTCTime;
+import org.spongycastle.asn1.DERSet;
+import org.spongycastle.asn1.cms.Attribute;
+import org.spongycastle.asn1.cms.AttributeTable;
+import org.spongycastle.asn1.cms.CMSAttributes;
+import org.spongycastle.asn1.cms.Time;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+
+import java.io.IOException;
+import java.util.Hashtable;
+import java.util.Map;
+
+/**
+ * The DER encoding of a standard signed attribute set with everything but the signing time
+ * and the message digest filled in.
+ * <p>
+ * With the content type, the algorithms and the digest length fixed, the attributes always
+ * have the same lengths and so sort into the same order, leaving the UTCTime digits and the
+ * digest at fixed offsets in the encoding.
+ */
+class SignedAttributeTemplate {
+    private static final int UTC_TIME_LENGTH = 13;
+
+    private final ASN1ObjectIdentifier contentType;
+    private final AlgorithmIdentifier digestAlgorithm;
+    private final AlgorithmIdentifier signatureAlgorithm;
+    private final int digestLength;
+
+    private final byte[] template;
+    private final int timeOffset;
+    private final int digestOffset;
+
+    private SignedAttributeTemplate(Map parameters, byte[] template, int timeOffset, int digestOffset) {
+        this.contentType = (ASN1ObjectIdentifier) parameters.get(CMSAttributeTableGenerator.CONTENT_TYPE);
+        this.digestAlgorithm = (AlgorithmIdentifier) parameters.get(CMSAttributeTableGenerator.DIGEST_ALGORITHM_IDENTIFIER);
+        this.signatureAlgorithm = (AlgorithmIdentifier) parameters.get(CMSAttributeTableGenerator.SIGNATURE_ALGORITHM_IDENTIFIER);
+        this.digestLength = ((byte[]) parameters.get(CMSAttributeTableGenerator.DIGEST)).length;
+        this.template = template;
+        this.timeOffset = timeOffset;
+        this.digestOffset = digestOffset;
+    }
+
+    /**
+     * Build a template from the attribute table generated for a first set of parameters.
+     *
+     * @return the template, or null if the table does not have the standard shape, for example
+     * when its signing time is not a UTCTime.
+     */
+    static SignedAttributeTemplate create(Map parameters, Hashtable std)
+            throws IOException {
+        if (!(parameters.get(CMSAttributeTableGenerator.CONTENT_TYPE) instanceof ASN1ObjectIdentifier)
+                || !(parameters.get(CMSAttributeTableGenerator.DIGEST) instanceof byte[])) {
+            return null;
+        }
+
+        Attribute time = (Attribute) std.get(CMSAttributes.signingTime);
+        Attribute digest = (Attribute) std.get(CMSAttributes.messageDigest);
+        if (time == null || digest == null
+                || !(Time.getInstance(time.getAttrValues().getObjectAt(0)).toASN1Primitive() instanceof ASN1UTCTime)) {
+            return null;
+        }
+
+        byte[] template = encode(std);
+
+        // both attributes end with the contents octets that change from one signature to the next
+        byte[] timeEncoding = time.getEncoded(ASN1Encoding.DER);
+        byte[] digestEncoding = digest.getEncoded(ASN1Encoding.DER);
+        int timeIndex = indexOf(template, timeEncoding);
+        int digestIndex = indexOf(template, digestEncoding);
+        if (timeIndex < 0 || digestIndex < 0) {
+            return null;
+        }
+
+        int digestLength = ((byte[]) parameters.get(CMSAttributeTableGenerator.DIGEST)).length;
+
+        return new SignedAttributeTemplate(parameters, template,
+                timeIndex + timeEncoding.length - UTC_TIME_LENGTH,
+                digestIndex + digestEncoding.length - digestLength);
+    }
+
+    static byte[] encode(Hashtable std)
+            throws IOException {
+        return new DERSet(new AttributeTable(std).toASN1EncodableVector()).getEncoded(ASN1Encoding.DER);
+    }
+
+    boolean matches(Map parameters) {
+        Object digest = parameters.get(CMSAttributeTableGenerator.DIGEST);
+
+        return contentType.equals(parameters.get(CMSAttributeTableGenerator.CONTENT_TYPE))
+                && equals(digestAlgorithm, parameters.get(CMSAttributeTableGenerator.DIGEST_ALGORITHM_IDENTIFIER))
+                && equals(signatureAlgorithm, parameters.get(CMSAttributeTableGenerator.SIGNATURE_ALGORITHM_IDENTIFIER))
+                && digest instanceof byte[] && ((byte[]) digest).length == digestLength;
+    }
+
+    /**
+     * Return the encoded attributes for the given signing time and digest.
+     *
+     * @return the encoding, or null if the signing time needs a GeneralizedTime.
+     */
+    byte[] encode(long signingTime, byte[] digest) {
+        byte[] encoding = template.clone();
+
+        if (!ASN1UTCTime.writeTime(encoding, timeOffset, signingTime)) {
+            return null;
+        }
+        System.arraycopy(digest, 0, encoding, digestOffset, digestLength);
+
+        return encoding;
+    }
+
+    private static boolean equals(ASN1Encodable a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static int indexOf(byte[] buf, byte[] part) {
+        outer:
+        for (int i = 0; i <= buf.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (buf[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+
+        return -1;
+    }
+}
@@ -49,6 +49,18 @@ public class SignerId
         this(new X509CertificateHolderSelector(issuer, serialNumber, subjectKeyId));
     }
 
+    public X500Name getIssuer() {
+        return baseSelector.getIssuer();
+    }
+
+    public BigInteger getSerialNumber() {
+        return baseSelector.getSerialNumber();
+    }
+
+    public byte[] getSubjectKeyIdentifier() {
+        return baseSelector.getSubjectKeyIdentifier();
+    }
+
     public int hashCode() {
         return baseSelector.hashCode();
     }
@@ -22,6 +22,7 @@ import org.spongycastle.util.io.TeeOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -141,13 +142,23 @@ public class SignerInfoGenerator {
                 digestAlg = digester.getAlgorithmIdentifier();
                 calculatedDigest = digester.getDigest();
                 Map parameters = getBaseParameters(contentType, digester.getAlgorithmIdentifier(), digestEncryptionAlgorithm, calculatedDigest);
-                AttributeTable signed = sAttrGen.getAttributes(Collections.unmodifiableMap(parameters));
+                byte[] encodedSignedAttr;
 
-                signedAttr = getAttributeSet(signed);
+                if (sAttrGen.getClass() == DefaultSignedAttributeTableGenerator.class) {
+                    // the standard attributes are patched into a template, already in DER order
+                    encodedSignedAttr = ((DefaultSignedAttributeTableGenerator) sAttrGen).getEncodedAttributes(
+                            Collections.unmodifiableMap(parameters), new Date());
+                    signedAttr = DERSet.fromDEREncoding(encodedSignedAttr);
+                } else {
+                    AttributeTable signed = sAttrGen.getAttributes(Collections.unmodifiableMap(parameters));
+
+                    signedAttr = getAttributeSet(signed);
+                    encodedSignedAttr = signedAttr.getEncoded(ASN1Encoding.DER);
+                }
 
                 // sig must be composed from the DER encoding.
                 OutputStream sOut = signer.getOutputStream();
-                sOut.write(signedAttr.getEncoded(ASN1Encoding.DER));
+                sOut.write(encodedSignedAttr);
 
                 sOut.close();
             } else {
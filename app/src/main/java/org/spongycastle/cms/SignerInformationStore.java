@@ -4,6 +4,7 @@ import org.spongycastle.util.Iterable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -41,6 +42,39 @@ public class SignerInformationStore
     }
 
 
+    /**
+     * Create a store containing a single SignerInformation object.
+     *
+     * @param signerInfo the signer information to contain.
+     */
+    public SignerInformationStore(
+            SignerInformation signerInfo) {
+        this(Collections.singletonList(signerInfo));
+    }
+
+    /**
+     * Return the first SignerInformation object that matches the
+     * passed in selector. Null if there are no matches.
+     *
+     * @param selector to identify a signer
+     * @return a single SignerInformation object. Null if none matches.
+     */
+    public SignerInformation get(
+            SignerId selector) {
+        Collection list = getSigners(selector);
+
+        return list.size() == 0 ? null : (SignerInformation) list.iterator().next();
+    }
+
+    /**
+     * Return the number of signers in the collection.
+     *
+     * @return number of signers identified.
+     */
+    public int size() {
+        return all.size();
+    }
+
     /**
      * Return all signers in the collection
      *
@@ -50,6 +84,28 @@ public class SignerInformationStore
         return new ArrayList(all);
     }
 
+    /**
+     * Return possible empty collection with signers matching the passed in SignerId
+     *
+     * @param selector a signer id to select against.
+     * @return a collection of SignerInformation objects.
+     */
+    public Collection<SignerInformation> getSigners(
+            SignerId selector) {
+        if (selector.getIssuer() != null && selector.getSubjectKeyIdentifier() != null) {
+            List results = new ArrayList();
+
+            results.addAll(getSigners(new SignerId(selector.getIssuer(), selector.getSerialNumber())));
+            results.addAll(getSigners(new SignerId(selector.getSubjectKeyIdentifier())));
+
+            return results;
+        } else {
+            List list = (ArrayList) table.get(selector);
+
+            return list == null ? new ArrayList() : new ArrayList(list);
+        }
+    }
+
     /**
      * Support method for Iterable where available.
      */
@@ -0,0 +1,62 @@
+package org.spongycastle.jcajce.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Signature;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link JcaJceHelper} that uses the default JCA/JCE mechanism like {@link DefaultJcaJceHelper},
+ * but only searches the provider list the first time a message digest algorithm is asked for.
+ * <p>
+ * The first digest created for an algorithm is kept as a prototype and later requests are served
+ * by cloning it. If the provider's implementation can't be cloned the provider is remembered
+ * instead and asked for the algorithm directly. Providers installed after an algorithm has been
+ * resolved are not considered for it.
+ * <p>
+ * Signatures are still created with delayed provider selection, as the provider able to use a key
+ * - a key held in a hardware backed keystore for example - is only known once the signature is
+ * initialised.
+ */
+public class CachingJcaJceHelper
+        implements JcaJceHelper {
+    // algorithm name to either a prototype MessageDigest or the Provider that implements it
+    private final ConcurrentMap<String, Object> digests = new ConcurrentHashMap<String, Object>();
+
+    public MessageDigest createMessageDigest(String algorithm)
+            throws NoSuchAlgorithmException {
+        Object resolved = digests.get(algorithm);
+
+        if (resolved instanceof MessageDigest) {
+            try {
+                return (MessageDigest) ((MessageDigest) resolved).clone();
+            } catch (CloneNotSupportedException e) {
+                // cannot happen, the prototype was cloned once before it was cached
+            }
+        } else if (resolved instanceof Provider) {
+            return MessageDigest.getInstance(algorithm, (Provider) resolved);
+        }
+
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+
+        try {
+            MessageDigest copy = (MessageDigest) digest.clone();
+
+            // the prototype is never handed out or updated, so cloning it is safe from any thread
+            digests.putIfAbsent(algorithm, digest);
+
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            digests.putIfAbsent(algorithm, digest.getProvider());
+
+            return digest;
+        }
+    }
+
+    public Signature createSignature(String algorithm)
+            throws NoSuchAlgorithmException {
+        return Signature.getInstance(algorithm);
+    }
+}
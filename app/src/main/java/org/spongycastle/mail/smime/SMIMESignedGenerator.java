@@ -201,12 +201,13 @@ public class SMIMESignedGenerator
     }
 
     private MimeMultipart make(
-            MimeBodyPart content)
+            MimeBodyPart content,
+            SMIMESignedResult result)
             throws SMIMEException {
         try {
-            MimeBodyPart sig = new MimeBodyPart();
+            MimeBodyPart sig = new SignatureBodyPart();
 
-            sig.setContent(new ContentSigner(content, false), DETACHED_SIGNATURE_TYPE);
+            sig.setContent(new ContentSigner(content, false, result), DETACHED_SIGNATURE_TYPE);
             sig.addHeader("Content-Type", DETACHED_SIGNATURE_TYPE);
             sig.addHeader("Content-Disposition", "attachment; filename=\"smime.p7s\"");
             sig.addHeader("Content-Description", "S/MIME Cryptographic Signature");
@@ -240,7 +241,33 @@ public class SMIMESignedGenerator
     public MimeMultipart generate(
             MimeBodyPart content)
             throws SMIMEException {
-        return make(makeContentBodyPart(content));
+        return make(makeContentBodyPart(content), null);
+    }
+
+    /**
+     * generate a signed message and return a handle that picks up the digest, signing time and
+     * signature as the signature part is written out, so the message only has to be signed once.
+     *
+     * @param content the MimeBodyPart to be signed.
+     * @return a result object holding the multipart/signed message.
+     */
+    public SMIMESignedResult generateWithResult(
+            MimeBodyPart content)
+            throws SMIMEException {
+        SMIMESignedResult result = new SMIMESignedResult();
+
+        result.setMultipart(make(makeContentBodyPart(content), result));
+
+        return result;
+    }
+
+    /**
+     * The detached signature part of a generated message. Its content only exists once the
+     * signature has been calculated, so multipart_signed encodes it as it is written out
+     * rather than leaving the transfer encoding to JavaMail.
+     */
+    public static class SignatureBodyPart
+            extends MimeBodyPart {
     }
 
     public class ContentSigner
@@ -248,13 +275,16 @@ public class SMIMESignedGenerator
         private final MimeBodyPart content;
         private final boolean encapsulate;
         private final boolean noProvider;
+        private final SMIMESignedResult result;
 
         ContentSigner(
                 MimeBodyPart content,
-                boolean encapsulate) {
+                boolean encapsulate,
+                SMIMESignedResult result) {
             this.content = content;
             this.encapsulate = encapsulate;
             this.noProvider = true;
+            this.result = result;
         }
 
         protected CMSSignedDataStreamGenerator getGenerator()
@@ -328,6 +358,10 @@ public class SMIMESignedGenerator
                     }
                 }
                 signingStream.close();
+
+                if (result != null) {
+                    result.setGenerated(gen.getGeneratedSignerInfos(), gen.getGeneratedDigests());
+                }
             } catch (MessagingException e) {
                 throw new IOException(e.toString());
             } catch (CMSException e) {
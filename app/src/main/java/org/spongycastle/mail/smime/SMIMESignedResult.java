@@ -0,0 +1,130 @@
+package org.spongycastle.mail.smime;
+
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1OctetString;
+import org.spongycastle.asn1.ASN1Set;
+import org.spongycastle.asn1.cms.Attribute;
+import org.spongycastle.asn1.cms.AttributeTable;
+import org.spongycastle.asn1.cms.CMSAttributes;
+import org.spongycastle.asn1.cms.SignerInfo;
+import org.spongycastle.asn1.cms.Time;
+import org.spongycastle.util.Arrays;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.mail.internet.MimeMultipart;
+
+/**
+ * Handle on a multipart/signed message produced by {@link SMIMESignedGenerator#generateWithResult}.
+ * <p>
+ * The signature is only calculated when the signature part is written out, the digest, signing
+ * time and signature of the first signer become available here as soon as that has happened, so
+ * there is no need to parse the generated message again to find them.
+ * </p>
+ */
+public class SMIMESignedResult {
+    private MimeMultipart multipart;
+    private volatile List signerInfos;
+    private volatile Map digests;
+
+    SMIMESignedResult() {
+    }
+
+    void setMultipart(MimeMultipart multipart) {
+        this.multipart = multipart;
+    }
+
+    void setGenerated(List signerInfos, Map digests) {
+        this.digests = digests;
+        this.signerInfos = signerInfos;
+    }
+
+    /**
+     * Return the generated multipart/signed message.
+     */
+    public MimeMultipart getMultipart() {
+        return multipart;
+    }
+
+    /**
+     * Return true if the signature part has been written and the signer results are available.
+     */
+    public boolean isSigned() {
+        return signerInfos != null && !signerInfos.isEmpty();
+    }
+
+    /**
+     * Return the SignerInfo structures generated while the signature part was written.
+     *
+     * @throws IllegalStateException if the message has not been written out yet.
+     */
+    public List getSignerInfos() {
+        checkSigned();
+
+        return signerInfos;
+    }
+
+    /**
+     * Return the digest calculated over the content for the first signer.
+     *
+     * @throws IllegalStateException if the message has not been written out yet.
+     */
+    public byte[] getContentDigest() {
+        SignerInfo info = getSignerInfo();
+        Attribute attr = getSignedAttribute(info, CMSAttributes.messageDigest);
+
+        if (attr != null) {
+            return Arrays.clone(ASN1OctetString.getInstance(attr.getAttrValues().getObjectAt(0)).getOctets());
+        }
+
+        return Arrays.clone((byte[]) digests.get(info.getDigestAlgorithm().getAlgorithm().getId()));
+    }
+
+    /**
+     * Return the signing time of the first signer, null if no signing-time attribute was generated.
+     *
+     * @throws IllegalStateException if the message has not been written out yet.
+     */
+    public Date getSigningTime() {
+        Attribute attr = getSignedAttribute(getSignerInfo(), CMSAttributes.signingTime);
+
+        if (attr != null) {
+            return Time.getInstance(attr.getAttrValues().getObjectAt(0).toASN1Primitive()).getDate();
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the raw signature bytes of the first signer.
+     *
+     * @throws IllegalStateException if the message has not been written out yet.
+     */
+    public byte[] getSignature() {
+        return Arrays.clone(getSignerInfo().getEncryptedDigest().getOctets());
+    }
+
+    private SignerInfo getSignerInfo() {
+        checkSigned();
+
+        return (SignerInfo) signerInfos.get(0);
+    }
+
+    private Attribute getSignedAttribute(SignerInfo info, ASN1ObjectIdentifier oid) {
+        ASN1Set signedAttrs = info.getAuthenticatedAttributes();
+
+        if (signedAttrs == null) {
+            return null;
+        }
+
+        return new AttributeTable(signedAttrs).get(oid);
+    }
+
+    private void checkSigned() {
+        if (!isSigned()) {
+            throw new IllegalStateException("signature part has not been written yet.");
+        }
+    }
+}
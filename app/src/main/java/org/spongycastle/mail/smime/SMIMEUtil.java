@@ -389,8 +389,23 @@ public class SMIMEUtil {
 
         public void write(byte[] buf, int off, int len)
                 throws IOException {
-            for (int i = off; i != off + len; i++) {
-                this.write(buf[i]);
+            // base 64 text is copied a run at a time, only the line ends are looked at one by one
+            int start = off;
+            int end = off + len;
+            for (int i = off; i != end; i++) {
+                if (buf[i] == '\r' || buf[i] == '\n') {
+                    if (i > start) {
+                        out.write(buf, start, i - start);
+                        lastb = buf[i - 1];
+                    }
+                    this.write(buf[i]);
+                    start = i + 1;
+                }
+            }
+
+            if (end > start) {
+                out.write(buf, start, end - start);
+                lastb = buf[end - 1];
             }
         }
 
@@ -1,7 +1,9 @@
 package org.spongycastle.mail.smime.handlers;
 
+import org.spongycastle.mail.smime.SMIMESignedGenerator;
 import org.spongycastle.mail.smime.SMIMEStreamingProcessor;
 import org.spongycastle.mail.smime.SMIMEUtil;
+import org.spongycastle.util.encoders.Base64OutputStream;
 
 import java.io.BufferedInputStream;
 import java.io.FilterOutputStream;
@@ -180,9 +182,42 @@ public class multipart_signed
             }
         }
 
+        if (isGeneratedBase64(mimePart)) {
+            // the signature we generated is encoded a block of lines at a time
+            LineOutputStream lOut = new LineOutputStream(out);
+
+            Enumeration headers = mimePart.getAllHeaderLines();
+            while (headers.hasMoreElements()) {
+                lOut.writeln((String) headers.nextElement());
+            }
+
+            lOut.writeln();      // CRLF separator
+
+            Base64OutputStream bOut = new Base64OutputStream(out);
+
+            mimePart.getDataHandler().writeTo(bOut);
+            bOut.finish();
+            return;
+        }
+
         mimePart.writeTo(out);
     }
 
+    /*
+     * True for a base64 signature part built by SMIMESignedGenerator, which JavaMail would
+     * otherwise encode itself. Any other part is left to JavaMail as it is.
+     */
+    private static boolean isGeneratedBase64(MimeBodyPart part)
+            throws MessagingException {
+        if (!(part instanceof SMIMESignedGenerator.SignatureBodyPart)) {
+            return false;
+        }
+
+        String[] cte = part.getHeader("Content-Transfer-Encoding");
+
+        return cte != null && cte[0].trim().equalsIgnoreCase("base64");
+    }
+
     private static class LineOutputStream extends FilterOutputStream {
         private static byte[] newline;
 
@@ -33,10 +33,42 @@ public class CRLFOutputStream extends FilterOutputStream {
         this.write(buf, 0, buf.length);
     }
 
+    /**
+     * Canonicalise a whole buffer, passing runs that need no change through
+     * with a single write rather than one call per byte.
+     */
     public void write(byte[] buf, int off, int len)
             throws IOException {
-        for (int i = off; i != off + len; i++) {
-            this.write(buf[i]);
+        int end = off + len;
+        int run = off;
+
+        for (int i = off; i != end; i++) {
+            byte b = buf[i];
+
+            if (b == '\r') {
+                if (i + 1 != end && buf[i + 1] == '\n') {
+                    i++;                // already canonical, leave in the run
+                    continue;
+                }
+                out.write(buf, run, i - run);
+                out.write(newline);
+                run = i + 1;
+            } else if (b == '\n') {
+                out.write(buf, run, i - run);
+                // a CR ending the previous call has already been written as CRLF
+                if (i != off || lastb != '\r') {
+                    out.write(newline);
+                }
+                run = i + 1;
+            }
+        }
+
+        if (run != end) {
+            out.write(buf, run, end - run);
+        }
+
+        if (len > 0) {
+            lastb = buf[end - 1];
         }
     }
 
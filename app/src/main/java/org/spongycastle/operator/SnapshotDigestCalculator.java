@@ -0,0 +1,19 @@
+package org.spongycastle.operator;
+
+/**
+ * A DigestCalculator whose intermediate state can be copied. Data common to several messages, a
+ * fixed header for example, can be written once to a calculator that is then only used for taking
+ * snapshots, and each message digested by a snapshot.
+ */
+public interface SnapshotDigestCalculator
+        extends DigestCalculator {
+    /**
+     * Return a new calculator that carries on from the data written to this calculator so far.
+     * This calculator is left as it is, but must not be written to while the snapshot is taken.
+     *
+     * @return a calculator with a copy of this calculator's state.
+     * @throws OperatorCreationException if the underlying digest cannot be copied.
+     */
+    SnapshotDigestCalculator snapshot()
+            throws OperatorCreationException;
+}
@@ -2,7 +2,6 @@ package org.spongycastle.operator.jcajce;
 
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
 import org.spongycastle.jcajce.io.OutputStreamFactory;
-import org.spongycastle.jcajce.util.DefaultJcaJceHelper;
 import org.spongycastle.operator.ContentSigner;
 import org.spongycastle.operator.DefaultSignatureAlgorithmIdentifierFinder;
 import org.spongycastle.operator.OperatorCreationException;
@@ -17,7 +16,7 @@ import java.security.SignatureException;
 import java.security.spec.AlgorithmParameterSpec;
 
 public class JcaContentSignerBuilder {
-    private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
+    private OperatorHelper helper = OperatorHelper.DEFAULT;
     private SecureRandom random;
     private String signatureAlgorithm;
     private AlgorithmIdentifier sigAlgId;
@@ -4,7 +4,6 @@ import org.spongycastle.asn1.x509.AlgorithmIdentifier;
 import org.spongycastle.cert.X509CertificateHolder;
 import org.spongycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.spongycastle.jcajce.io.OutputStreamFactory;
-import org.spongycastle.jcajce.util.DefaultJcaJceHelper;
 import org.spongycastle.operator.ContentVerifier;
 import org.spongycastle.operator.ContentVerifierProvider;
 import org.spongycastle.operator.OperatorCreationException;
@@ -20,7 +19,7 @@ import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 
 public class JcaContentVerifierProviderBuilder {
-    private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
+    private OperatorHelper helper = OperatorHelper.DEFAULT;
 
     public JcaContentVerifierProviderBuilder() {
     }
@@ -1,10 +1,9 @@
 package org.spongycastle.operator.jcajce;
 
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
-import org.spongycastle.jcajce.util.DefaultJcaJceHelper;
-import org.spongycastle.operator.DigestCalculator;
 import org.spongycastle.operator.DigestCalculatorProvider;
 import org.spongycastle.operator.OperatorCreationException;
+import org.spongycastle.operator.SnapshotDigestCalculator;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -12,37 +11,56 @@ import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 
 public class JcaDigestCalculatorProviderBuilder {
-    private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
+    private OperatorHelper helper = OperatorHelper.DEFAULT;
 
     public JcaDigestCalculatorProviderBuilder() {
     }
 
+    /**
+     * Build a provider whose calculators are {@link SnapshotDigestCalculator}s. Each calculator
+     * starts from a copy of a prototype digest kept for its algorithm, so the provider list is not
+     * searched for every message.
+     */
     public DigestCalculatorProvider build() {
         return algorithm -> {
-            final DigestOutputStream stream;
-
             try {
-                MessageDigest dig = helper.createDigest(algorithm);
-
-                stream = new DigestOutputStream(dig);
+                return new DigestCalculatorImpl(algorithm, helper.createDigest(algorithm));
             } catch (GeneralSecurityException e) {
                 throw new OperatorCreationException("exception on setup: " + e, e);
             }
+        };
+    }
 
-            return new DigestCalculator() {
-                public AlgorithmIdentifier getAlgorithmIdentifier() {
-                    return algorithm;
-                }
+    private class DigestCalculatorImpl
+            implements SnapshotDigestCalculator {
+        private final AlgorithmIdentifier algorithm;
+        private final DigestOutputStream stream;
 
-                public OutputStream getOutputStream() {
-                    return stream;
-                }
+        DigestCalculatorImpl(AlgorithmIdentifier algorithm, MessageDigest dig) {
+            this.algorithm = algorithm;
+            this.stream = new DigestOutputStream(dig);
+        }
 
-                public byte[] getDigest() {
-                    return stream.getDigest();
-                }
-            };
-        };
+        public AlgorithmIdentifier getAlgorithmIdentifier() {
+            return algorithm;
+        }
+
+        public OutputStream getOutputStream() {
+            return stream;
+        }
+
+        public byte[] getDigest() {
+            return stream.getDigest();
+        }
+
+        public SnapshotDigestCalculator snapshot()
+                throws OperatorCreationException {
+            try {
+                return new DigestCalculatorImpl(algorithm, (MessageDigest) stream.dig.clone());
+            } catch (CloneNotSupportedException e) {
+                throw new OperatorCreationException("digest state cannot be copied: " + e.getMessage(), e);
+            }
+        }
     }
 
     private class DigestOutputStream
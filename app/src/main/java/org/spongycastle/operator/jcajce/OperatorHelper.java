@@ -1,8 +1,10 @@
 package org.spongycastle.operator.jcajce;
 
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
 import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
 import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.jcajce.util.CachingJcaJceHelper;
 import org.spongycastle.jcajce.util.JcaJceHelper;
 import org.spongycastle.jcajce.util.MessageDigestUtils;
 
@@ -12,6 +14,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.Signature;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 class OperatorHelper {
     private static final Map oids = new HashMap();
@@ -24,30 +27,48 @@ class OperatorHelper {
         oids.put(NISTObjectIdentifiers.id_sha512, "SHA512");
     }
 
+    /**
+     * Shared by the builders, so that algorithm names and digest providers are only looked up once per process.
+     */
+    static final OperatorHelper DEFAULT = new OperatorHelper(new CachingJcaJceHelper());
+
     private JcaJceHelper helper;
 
+    // digest OID to the JCA name that was found to work for it, saving the failed first try
+    private final Map<ASN1ObjectIdentifier, String> digestNames = new ConcurrentHashMap<ASN1ObjectIdentifier, String>();
+
     OperatorHelper(JcaJceHelper helper) {
         this.helper = helper;
     }
 
     MessageDigest createDigest(AlgorithmIdentifier digAlgId)
             throws GeneralSecurityException {
+        ASN1ObjectIdentifier oid = digAlgId.getAlgorithm();
+        String digestName = digestNames.get(oid);
+
+        if (digestName != null) {
+            return helper.createMessageDigest(digestName);
+        }
+
         MessageDigest dig;
 
+        digestName = MessageDigestUtils.getDigestName(oid);
         try {
-            dig = helper.createMessageDigest(MessageDigestUtils.getDigestName(digAlgId.getAlgorithm()));
+            dig = helper.createMessageDigest(digestName);
         } catch (NoSuchAlgorithmException e) {
             //
             // try an alternate
             //
-            if (oids.get(digAlgId.getAlgorithm()) != null) {
-                String digestAlgorithm = (String) oids.get(digAlgId.getAlgorithm());
-                dig = helper.createMessageDigest(digestAlgorithm);
+            if (oids.get(oid) != null) {
+                digestName = (String) oids.get(oid);
+                dig = helper.createMessageDigest(digestName);
             } else {
                 throw e;
             }
         }
 
+        digestNames.put(oid, digestName);
+
         return dig;
     }
 
@@ -1,14 +1,23 @@
 package org.spongycastle.util.encoders;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import org.spongycastle.util.Arrays;
+import org.spongycastle.util.Strings;
 
 /**
  * Utility class for converting Base64 data to bytes and back again.
  */
 public class Base64 {
-    private static final Encoder encoder = new Base64Encoder();
+    private static final Base64Encoder encoder = new Base64Encoder();
+
+    /**
+     * encode the input data producing a base 64 String.
+     *
+     * @return a String containing the base 64 encoded data.
+     */
+    public static String toBase64String(
+            byte[] data) {
+        return Strings.fromByteArray(encode(data, 0, data.length));
+    }
 
     /**
      * encode the input data producing a base 64 encoded byte array.
@@ -29,16 +38,15 @@ public class Base64 {
             byte[] data,
             int off,
             int length) {
-        int len = (length + 2) / 3 * 4;
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream(len);
+        byte[] encoded = new byte[encoder.getEncodedLength(length)];
 
         try {
-            encoder.encode(data, off, length, bOut);
+            encoder.encode(data, off, length, encoded, 0);
         } catch (Exception e) {
             throw new EncoderException("exception encoding base64 string: " + e.getMessage(), e);
         }
 
-        return bOut.toByteArray();
+        return encoded;
     }
 
     /**
@@ -48,17 +56,15 @@ public class Base64 {
      */
     public static byte[] decode(
             String data) {
-        int len = data.length() / 4 * 3;
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream(len);
+        byte[] decoded = new byte[encoder.getMaxDecodedLength(data.length())];
+        int length;
 
         try {
-            encoder.decode(data, bOut);
+            length = encoder.decode(data, decoded, 0);
         } catch (Exception e) {
             throw new DecoderException("unable to decode base64 string: " + e.getMessage(), e);
         }
 
-        return bOut.toByteArray();
+        return length == decoded.length ? decoded : Arrays.copyOfRange(decoded, 0, length);
     }
-
-
-}
\ No newline at end of file
+}
@@ -27,15 +27,26 @@ public class Base64Encoder
     protected byte padding = (byte) '=';
 
     /*
-     * set up the decoding table.
+     * set up the decoding table, whitespace is marked so a single lookup tells digits,
+     * ignored characters and invalid ones apart.
      */
     protected final byte[] decodingTable = new byte[128];
 
+    private static final byte SKIP = (byte) 0xfe;
+
+    // 512 groups of 3 bytes are encoded into a 2K block before it is written out
+    private static final int CHUNK_SIZE = 3 * 512;
+
     protected void initialiseDecodingTable() {
         for (int i = 0; i < decodingTable.length; i++) {
             decodingTable[i] = (byte) 0xff;
         }
 
+        decodingTable['\n'] = SKIP;
+        decodingTable['\r'] = SKIP;
+        decodingTable['\t'] = SKIP;
+        decodingTable[' '] = SKIP;
+
         for (int i = 0; i < encodingTable.length; i++) {
             decodingTable[encodingTable[i]] = (byte) i;
         }
@@ -46,7 +57,22 @@ public class Base64Encoder
     }
 
     /**
-     * encode the input data producing a base 64 output stream.
+     * Return the number of bytes length bytes of data encode to.
+     */
+    public int getEncodedLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * Return the largest number of bytes length characters of encoded data can decode to.
+     */
+    public int getMaxDecodedLength(int length) {
+        return length / 4 * 3;
+    }
+
+    /**
+     * encode the input data into outBuf, which must have room for getEncodedLength(length) bytes
+     * from outOff on.
      *
      * @return the number of bytes produced.
      */
@@ -54,63 +80,78 @@ public class Base64Encoder
             byte[] data,
             int off,
             int length,
-            OutputStream out)
-            throws IOException {
-        int modulus = length % 3;
-        int dataLength = (length - modulus);
-        int a1, a2, a3;
-
-        for (int i = off; i < off + dataLength; i += 3) {
-            a1 = data[i] & 0xff;
-            a2 = data[i + 1] & 0xff;
-            a3 = data[i + 2] & 0xff;
-
-            out.write(encodingTable[(a1 >>> 2) & 0x3f]);
-            out.write(encodingTable[((a1 << 4) | (a2 >>> 4)) & 0x3f]);
-            out.write(encodingTable[((a2 << 2) | (a3 >>> 6)) & 0x3f]);
-            out.write(encodingTable[a3 & 0x3f]);
+            byte[] outBuf,
+            int outOff) {
+        byte[] table = encodingTable;
+        int inPos = off;
+        int inLimit = off + length - 2;
+        int outPos = outOff;
+
+        while (inPos < inLimit) {
+            int a1 = data[inPos++] & 0xff;
+            int a2 = data[inPos++] & 0xff;
+            int a3 = data[inPos++] & 0xff;
+
+            outBuf[outPos++] = table[a1 >>> 2];
+            outBuf[outPos++] = table[((a1 << 4) | (a2 >>> 4)) & 0x3f];
+            outBuf[outPos++] = table[((a2 << 2) | (a3 >>> 6)) & 0x3f];
+            outBuf[outPos++] = table[a3 & 0x3f];
         }
 
         /*
          * process the tail end.
          */
-        int b1, b2, b3;
         int d1, d2;
 
-        switch (modulus) {
-            case 0:        /* nothing left to do */
-                break;
+        switch (off + length - inPos) {
             case 1:
-                d1 = data[off + dataLength] & 0xff;
-                b1 = (d1 >>> 2) & 0x3f;
-                b2 = (d1 << 4) & 0x3f;
-
-                out.write(encodingTable[b1]);
-                out.write(encodingTable[b2]);
-                out.write(padding);
-                out.write(padding);
+                d1 = data[inPos] & 0xff;
+
+                outBuf[outPos++] = table[d1 >>> 2];
+                outBuf[outPos++] = table[(d1 << 4) & 0x3f];
+                outBuf[outPos++] = padding;
+                outBuf[outPos++] = padding;
                 break;
             case 2:
-                d1 = data[off + dataLength] & 0xff;
-                d2 = data[off + dataLength + 1] & 0xff;
-
-                b1 = (d1 >>> 2) & 0x3f;
-                b2 = ((d1 << 4) | (d2 >>> 4)) & 0x3f;
-                b3 = (d2 << 2) & 0x3f;
+                d1 = data[inPos] & 0xff;
+                d2 = data[inPos + 1] & 0xff;
 
-                out.write(encodingTable[b1]);
-                out.write(encodingTable[b2]);
-                out.write(encodingTable[b3]);
-                out.write(padding);
+                outBuf[outPos++] = table[d1 >>> 2];
+                outBuf[outPos++] = table[((d1 << 4) | (d2 >>> 4)) & 0x3f];
+                outBuf[outPos++] = table[(d2 << 2) & 0x3f];
+                outBuf[outPos++] = padding;
                 break;
         }
 
-        return (dataLength / 3) * 4 + ((modulus == 0) ? 0 : 4);
+        return outPos - outOff;
     }
 
-    private boolean ignore(
-            char c) {
-        return (c == '\n' || c == '\r' || c == '\t' || c == ' ');
+    /**
+     * encode the input data producing a base 64 output stream.
+     *
+     * @return the number of bytes produced.
+     */
+    public int encode(
+            byte[] data,
+            int off,
+            int length,
+            OutputStream out)
+            throws IOException {
+        byte[] outBuf = new byte[getEncodedLength(Math.min(length, CHUNK_SIZE))];
+        int total = 0;
+
+        while (length > 0) {
+            int inLen = Math.min(length, CHUNK_SIZE);
+            int outLen = encode(data, off, inLen, outBuf, 0);
+
+            out.write(outBuf, 0, outLen);
+
+            off += inLen;
+            length -= inLen;
+            total += outLen;
+        }
+
+        return total;
     }
 
     /**
@@ -123,129 +164,86 @@ public class Base64Encoder
             String data,
             OutputStream out)
             throws IOException {
-        byte b1, b2, b3, b4;
-        int length = 0;
+        byte[] outBuf = new byte[getMaxDecodedLength(data.length())];
+        int length = decode(data, outBuf, 0);
 
-        int end = data.length();
-
-        while (end > 0) {
-            if (!ignore(data.charAt(end - 1))) {
-                break;
-            }
-
-            end--;
-        }
+        out.write(outBuf, 0, length);
 
-        // empty data!
-        if (end == 0) {
-            return 0;
-        }
+        return length;
+    }
 
+    /**
+     * decode the base 64 encoded String data into outBuf, which must have room for
+     * getMaxDecodedLength(data.length()) bytes from outOff on. Whitespace characters will be ignored.
+     *
+     * @return the number of bytes produced.
+     */
+    public int decode(
+            String data,
+            byte[] outBuf,
+            int outOff)
+            throws IOException {
+        byte[] table = decodingTable;
+        int end = data.length();
+        int outPos = outOff;
+        int quad = 0;
+        int count = 0;
         int i = 0;
-        int finish = end;
-
-        while (finish > 0 && i != 4) {
-            if (!ignore(data.charAt(finish - 1))) {
-                i++;
-            }
-
-            finish--;
-        }
 
-        i = nextI(data, 0, finish);
+        for (; i < end; i++) {
+            char c = data.charAt(i);
+            int v = c < 128 ? table[c] : -1;
+
+            if (v >= 0) {
+                quad = (quad << 6) | v;
+                if (++count == 4) {
+                    outBuf[outPos++] = (byte) (quad >> 16);
+                    outBuf[outPos++] = (byte) (quad >> 8);
+                    outBuf[outPos++] = (byte) quad;
+                    quad = 0;
+                    count = 0;
+                }
+            } else if (v != SKIP) {
+                if (c == padding && count >= 2) {
+                    break;
+                }
 
-        while (i < finish) {
-            b1 = decodingTable[data.charAt(i++)];
-
-            i = nextI(data, i, finish);
-
-            b2 = decodingTable[data.charAt(i++)];
-
-            i = nextI(data, i, finish);
-
-            b3 = decodingTable[data.charAt(i++)];
-
-            i = nextI(data, i, finish);
-
-            b4 = decodingTable[data.charAt(i++)];
-
-            if ((b1 | b2 | b3 | b4) < 0) {
                 throw new IOException("invalid characters encountered in base64 data");
             }
-
-            out.write((b1 << 2) | (b2 >> 4));
-            out.write((b2 << 4) | (b3 >> 2));
-            out.write((b3 << 6) | b4);
-
-            length += 3;
-
-            i = nextI(data, i, finish);
         }
 
-        int e0 = nextI(data, i, end);
-        int e1 = nextI(data, e0 + 1, end);
-        int e2 = nextI(data, e1 + 1, end);
-        int e3 = nextI(data, e2 + 1, end);
-
-        length += decodeLastBlock(out, data.charAt(e0), data.charAt(e1), data.charAt(e2), data.charAt(e3));
-
-        return length;
-    }
-
-    private int decodeLastBlock(OutputStream out, char c1, char c2, char c3, char c4)
-            throws IOException {
-        byte b1, b2, b3, b4;
-
-        if (c3 == padding) {
-            if (c4 != padding) {
-                throw new IOException("invalid characters encountered at end of base64 data");
+        if (i == end) {
+            if (count != 0) {
+                throw new IOException("base64 data truncated");
             }
 
-            b1 = decodingTable[c1];
-            b2 = decodingTable[c2];
-
-            if ((b1 | b2) < 0) {
-                throw new IOException("invalid characters encountered at end of base64 data");
-            }
+            return outPos - outOff;
+        }
 
-            out.write((b1 << 2) | (b2 >> 4));
+        // padding: "xx==" or "xxx=", followed by nothing but whitespace
+        int pads = count == 2 ? 2 : 1;
 
-            return 1;
-        } else if (c4 == padding) {
-            b1 = decodingTable[c1];
-            b2 = decodingTable[c2];
-            b3 = decodingTable[c3];
+        for (; i < end; i++) {
+            char c = data.charAt(i);
 
-            if ((b1 | b2 | b3) < 0) {
+            if (c == padding && pads > 0) {
+                pads--;
+            } else if (c >= 128 || table[c] != SKIP) {
                 throw new IOException("invalid characters encountered at end of base64 data");
             }
+        }
 
-            out.write((b1 << 2) | (b2 >> 4));
-            out.write((b2 << 4) | (b3 >> 2));
+        if (pads != 0) {
+            throw new IOException("invalid characters encountered at end of base64 data");
+        }
 
-            return 2;
+        if (count == 2) {
+            outBuf[outPos++] = (byte) (quad >> 4);
         } else {
-            b1 = decodingTable[c1];
-            b2 = decodingTable[c2];
-            b3 = decodingTable[c3];
-            b4 = decodingTable[c4];
-
-            if ((b1 | b2 | b3 | b4) < 0) {
-                throw new IOException("invalid characters encountered at end of base64 data");
-            }
-
-            out.write((b1 << 2) | (b2 >> 4));
-            out.write((b2 << 4) | (b3 >> 2));
-            out.write((b3 << 6) | b4);
-
-            return 3;
+            outBuf[outPos++] = (byte) (quad >> 10);
+            outBuf[outPos++] = (byte) (quad >> 2);
         }
-    }
 
-    private int nextI(String data, int i, int finish) {
-        while ((i < finish) && ignore(data.charAt(i))) {
-            i++;
-        }
-        return i;
+        return outPos - outOff;
     }
-}
\ No newline at end of file
+}
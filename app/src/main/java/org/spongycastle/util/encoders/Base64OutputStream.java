@@ -0,0 +1,145 @@
+package org.spongycastle.util.encoders;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.spongycastle.util.Strings;
+
+/**
+ * An output stream that base 64 encodes what is written to it in the MIME format of RFC 2045,
+ * lines of 76 characters ended by CRLF.
+ * <p>
+ * Input is encoded a line's worth (57 bytes) at a time, straight from the caller's buffer where
+ * possible, and whole lines are handed to the underlying stream in blocks. The last, short line
+ * and its padding are written when the stream is finished or closed.
+ */
+public class Base64OutputStream
+        extends FilterOutputStream {
+    private static final int LINE_INPUT = 57;
+    private static final int LINE_LENGTH = 76 + 2;
+    private static final int LINES_PER_BLOCK = 32;
+
+    // a constant table lets the JIT drop the bounds checks on the masked lookups
+    private static final byte[] ENCODING_TABLE = Strings.toByteArray(
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/");
+
+    private final byte[] pending = new byte[LINE_INPUT];
+    private final byte[] block = new byte[LINE_LENGTH * LINES_PER_BLOCK];
+    private int pendingLength;
+    private boolean finished;
+
+    public Base64OutputStream(OutputStream out) {
+        super(out);
+    }
+
+    public void write(int b)
+            throws IOException {
+        pending[pendingLength++] = (byte) b;
+        if (pendingLength == LINE_INPUT) {
+            out.write(block, 0, encodeLine(pending, 0, LINE_INPUT, 0));
+            pendingLength = 0;
+        }
+    }
+
+    public void write(byte[] buf, int off, int len)
+            throws IOException {
+        if (pendingLength > 0) {
+            int n = Math.min(len, LINE_INPUT - pendingLength);
+            System.arraycopy(buf, off, pending, pendingLength, n);
+            pendingLength += n;
+            off += n;
+            len -= n;
+
+            if (pendingLength < LINE_INPUT) {
+                return;
+            }
+            out.write(block, 0, encodeLine(pending, 0, LINE_INPUT, 0));
+            pendingLength = 0;
+        }
+
+        while (len >= LINE_INPUT) {
+            int blockLength = 0;
+            while (len >= LINE_INPUT && blockLength < block.length) {
+                blockLength = encodeLine(buf, off, LINE_INPUT, blockLength);
+                off += LINE_INPUT;
+                len -= LINE_INPUT;
+            }
+            out.write(block, 0, blockLength);
+        }
+
+        System.arraycopy(buf, off, pending, 0, len);
+        pendingLength = len;
+    }
+
+    /**
+     * Write the last line, if there is one, without closing the underlying stream.
+     */
+    public void finish()
+            throws IOException {
+        if (!finished) {
+            finished = true;
+            if (pendingLength > 0) {
+                out.write(block, 0, encodeLine(pending, 0, pendingLength, 0));
+                pendingLength = 0;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the last line, if there is one, and close the underlying stream.
+     */
+    public void close()
+            throws IOException {
+        finish();
+
+        super.close();
+    }
+
+    private int encodeLine(byte[] data, int off, int len, int blockOff) {
+        byte[] table = ENCODING_TABLE;
+        byte[] out = block;
+        int end = off + len - 2;
+        int pos = blockOff;
+
+        while (off < end) {
+            int v = (data[off] & 0xff) << 16 | (data[off + 1] & 0xff) << 8 | (data[off + 2] & 0xff);
+            off += 3;
+
+            out[pos] = table[v >>> 18];
+            out[pos + 1] = table[(v >>> 12) & 0x3f];
+            out[pos + 2] = table[(v >>> 6) & 0x3f];
+            out[pos + 3] = table[v & 0x3f];
+            pos += 4;
+        }
+
+        switch (end + 2 - off) {
+            case 1: {
+                int v = data[off] & 0xff;
+
+                out[pos] = table[v >>> 2];
+                out[pos + 1] = table[(v << 4) & 0x3f];
+                out[pos + 2] = '=';
+                out[pos + 3] = '=';
+                pos += 4;
+                break;
+            }
+            case 2: {
+                int v = (data[off] & 0xff) << 8 | (data[off + 1] & 0xff);
+
+                out[pos] = table[v >>> 10];
+                out[pos + 1] = table[(v >>> 4) & 0x3f];
+                out[pos + 2] = table[(v << 2) & 0x3f];
+                out[pos + 3] = '=';
+                pos += 4;
+                break;
+            }
+        }
+
+        out[pos++] = '\r';
+        out[pos++] = '\n';
+
+        return pos;
+    }
+}
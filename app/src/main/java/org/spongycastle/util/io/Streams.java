@@ -12,6 +12,19 @@ public final class Streams {
     private static int BUFFER_SIZE = 4096;
 
 
+    /**
+     * Read stream till EOF is encountered.
+     *
+     * @param inStr stream to be emptied.
+     * @throws IOException in case of underlying IOException.
+     */
+    public static void drain(InputStream inStr)
+            throws IOException {
+        byte[] bs = new byte[BUFFER_SIZE];
+        while (inStr.read(bs, 0, bs.length) >= 0) {
+        }
+    }
+
     /**
      * Read stream fully, returning contents in a byte array.
      *
@@ -0,0 +1,189 @@
+package org.spongycastle.asn1;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation counts for the recycled decoder state in ASN1InputStream, taken from the thread's
+ * allocated bytes counter: resetting a DefiniteLengthInputStream frame or an ASN1EncodableVector
+ * allocates nothing, and decoding a SignedData blob allocates less than the decoder that built a
+ * new frame, sub-stream and vector for every object (AllocatingASN1InputStream).
+ */
+public class ASN1InputStreamAllocationTest
+{
+    private static final int ITERATIONS = 10000;
+
+    // a SignedData with encapsulated content, made by openssl cms -sign -nodetach -md sha256
+    private static final String SIGNED_DATA =
+          "MIIGFQYJKoZIhvcNAQcCoIIGBjCCBgICAQExDTALBglghkgBZQMEAgEwKAYJKoZI"
+        + "hvcNAQcBoBsEGWhhcmdhPTEwMDAmYmFyYW5nPWJlcmFzDQqgggNbMIIDVzCCAj+g"
+        + "AwIBAgIUI9sbLwbMghSLW8yPFcRS8rauiygwDQYJKoZIhvcNAQELBQAwOzELMAkG"
+        + "A1UEBhMCSUQxFDASBgNVBAoMC1Rva28gTWFrbXVyMRYwFAYDVQQDDA1QZW5qdWFs"
+        + "IEJlcmFzMB4XDTI2MTAxODA0MTQwMVoXDTM2MTAxNTA0MTQwMVowOzELMAkGA1UE"
+        + "BhMCSUQxFDASBgNVBAoMC1Rva28gTWFrbXVyMRYwFAYDVQQDDA1QZW5qdWFsIEJl"
+        + "cmFzMIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEAv3Jz7ANEki9fMTIT"
+        + "+XR4ZKg9hxIJcAIIlxxXN0qBE3ClTTmdINIoSmLcKQJQQUkzQ+KLWXR+41vUFoct"
+        + "aAxVBxi65sNyMgmA0jWWP3Jehd1M1HU5Eh7YPyQ2TzJNw1PZyvgLgBThOmw1NKJv"
+        + "HMkE0l50IXfyex/3U40YmEUxGQFbjNN8g8bVRFgfQM2mx+lJDfGmnKfvdCkAmJPD"
+        + "O8reGRcu3hZpuWilQkYmzV9WVeBV7J32rHrhMXbk7mr3A+NnR+7VGQt4hgFY7pd4"
+        + "TJIW4j2PgsfX1oCd/aUFwB9O3AJoqSjBoDfqSKTXOhYIQkCeXJP29dKpdXYfN6hg"
+        + "N2OfNwIDAQABo1MwUTAdBgNVHQ4EFgQUqKClIS8qndBsgZZ9EAqxMQOf8N8wHwYD"
+        + "VR0jBBgwFoAUqKClIS8qndBsgZZ9EAqxMQOf8N8wDwYDVR0TAQH/BAUwAwEB/zAN"
+        + "BgkqhkiG9w0BAQsFAAOCAQEAZPxkOLGfOvKPmy2xuoXIM4BUlbugK43NTZ7CHe8r"
+        + "P1gyY9jcUi4BcL2rGR1cNn1T8Hj6STknf1Sj5X2H41/2lyKgwy7vED8ILQctWf/r"
+        + "bXnSjg0uYJ431I8A4QLfYB6Zp/At/9MFzYc+Zj9PpJPijVD3DlZbCS60alZ/N2Dk"
+        + "V5qD8SvWBz4v6OBdwJBC+HpMYUJ0MAtGrLNa7rwUAl85Qb96m3PiLDAz28a9UaXc"
+        + "zsk2RjKLiJdWS4Nupb5lxUVPKX1V869cgyh5ve/DTLOdQTpQC0kTPPCKTrhTmSZG"
+        + "p+Tt1AY/HL/FS3vuL8MGGYlTaldlfQc5Xk6oT3ue6Z2MiDGCAmMwggJfAgEBMFMw"
+        + "OzELMAkGA1UEBhMCSUQxFDASBgNVBAoMC1Rva28gTWFrbXVyMRYwFAYDVQQDDA1Q"
+        + "ZW5qdWFsIEJlcmFzAhQj2xsvBsyCFItbzI8VxFLytq6LKDALBglghkgBZQMEAgGg"
+        + "geQwGAYJKoZIhvcNAQkDMQsGCSqGSIb3DQEHATAcBgkqhkiG9w0BCQUxDxcNMjYx"
+        + "MDE4MDQxNDAzWjAvBgkqhkiG9w0BCQQxIgQgTTydqqc/bIDFHlT8/z8c3wQ1HidX"
+        + "2dt9FvmuNhB3rEoweQYJKoZIhvcNAQkPMWwwajALBglghkgBZQMEASowCwYJYIZI"
+        + "AWUDBAEWMAsGCWCGSAFlAwQBAjAKBggqhkiG9w0DBzAOBggqhkiG9w0DAgICAIAw"
+        + "DQYIKoZIhvcNAwICAUAwBwYFKw4DAgcwDQYIKoZIhvcNAwICASgwDQYJKoZIhvcN"
+        + "AQEBBQAEggEAgyctVVm3dEcWdGaxxNXNLHJR32zJOmfdFye/9Hv7sZ0OFkc5wc96"
+        + "Xqa8dUKRVAHLAfeOiDrcSk8/Vl9oeRAzXQMR1XY0167aDkVK64qK08ymgy0Z0i9o"
+        + "iWnTYCuFvYYnegfkESoBZ49B98PXsR3RiClytzxJXZcV5wKIg0uiWZgjBHU4mnfc"
+        + "Ga4y1q6K0CIMCP8XJA/xLKKqXORaCmWtLsfs4uJv/VEYYkoCI0Dga/ki6RcaR1k2"
+        + "nvamgl0aamKbBM5qxpMqQX1pWThze8AB/UcvHYZlccwDpbrF8JIOHrblGuDh2djQ"
+        + "XWKQbKcdna2ZEDaJB6XH1gAHg25QY8NniQ==";
+
+    private Object threads;
+    private Method getThreadAllocatedBytes;
+
+    /*
+     * The counter is HotSpot's com.sun.management.ThreadMXBean, looked up reflectively as the
+     * unit tests are compiled against android.jar, which has no java.lang.management.
+     */
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        Class beanClass;
+        try
+        {
+            beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            threads = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+        }
+        catch (ClassNotFoundException e)
+        {
+            threads = null;
+            beanClass = null;
+        }
+
+        Assume.assumeTrue("no allocation counter", beanClass != null && beanClass.isInstance(threads)
+            && Boolean.TRUE.equals(beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(threads)));
+
+        beanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threads, Boolean.TRUE);
+        getThreadAllocatedBytes = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+    }
+
+    @Test
+    public void testFrameResetAllocatesNothing()
+        throws IOException
+    {
+        byte[] contents = new byte[4 * 2 * ITERATIONS];
+        DefiniteLengthInputStream frame = new DefiniteLengthInputStream(new ByteArrayInputStream(contents), 4, contents.length);
+
+        readFrames(frame, ITERATIONS);
+
+        long start = allocatedBytes();
+        readFrames(frame, ITERATIONS);
+        long allocated = allocatedBytes() - start;
+
+        assertTrue("reset allocated " + allocated + " bytes", allocated < ITERATIONS);
+    }
+
+    @Test
+    public void testVectorResetAllocatesNothing()
+    {
+        ASN1EncodableVector v = new ASN1EncodableVector();
+
+        fillVectors(v, ITERATIONS);
+
+        long start = allocatedBytes();
+        fillVectors(v, ITERATIONS);
+        long allocated = allocatedBytes() - start;
+
+        assertTrue("reset allocated " + allocated + " bytes", allocated < ITERATIONS);
+    }
+
+    @Test
+    public void testRecycledDecoderAllocatesLess()
+        throws IOException
+    {
+        byte[] encoding = Base64.decode(SIGNED_DATA);
+
+        assertEquals(new AllocatingASN1InputStream(encoding).readObject(), new ASN1InputStream(encoding).readObject());
+
+        // warm up both, so that neither count includes class loading
+        decode(encoding, false, ITERATIONS);
+        decode(encoding, true, ITERATIONS);
+
+        long before = decode(encoding, false, ITERATIONS) / ITERATIONS;
+        long after = decode(encoding, true, ITERATIONS) / ITERATIONS;
+
+        System.out.println("SignedData, " + encoding.length + " bytes: " + before + " bytes allocated per decode before, " + after + " after");
+
+        assertTrue(after < before);
+    }
+
+    private long decode(byte[] encoding, boolean recycled, int count)
+        throws IOException
+    {
+        long start = allocatedBytes();
+        for (int i = 0; i != count; i++)
+        {
+            ASN1InputStream aIn = recycled ? new ASN1InputStream(encoding) : new AllocatingASN1InputStream(encoding);
+
+            aIn.readObject();
+        }
+        return allocatedBytes() - start;
+    }
+
+    private static void readFrames(DefiniteLengthInputStream frame, int count)
+        throws IOException
+    {
+        for (int i = 0; i != count; i++)
+        {
+            frame.reset(4);
+            while (frame.read() >= 0)
+            {
+            }
+        }
+    }
+
+    private static void fillVectors(ASN1EncodableVector v, int count)
+    {
+        for (int i = 0; i != count; i++)
+        {
+            v.reset();
+            for (int j = 0; j != 10; j++)
+            {
+                v.add(DERNull.INSTANCE);
+            }
+        }
+    }
+
+    private long allocatedBytes()
+    {
+        try
+        {
+            return ((Long)getThreadAllocatedBytes.invoke(threads, Long.valueOf(Thread.currentThread().getId()))).longValue();
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("unable to read allocation counter: " + e.getMessage(), e);
+        }
+    }
+}
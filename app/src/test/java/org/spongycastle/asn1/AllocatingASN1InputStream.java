@@ -0,0 +1,92 @@
+package org.spongycastle.asn1;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ASN1InputStream as it decoded definite-length objects before its frames were recycled: a new
+ * DefiniteLengthInputStream for every object, a new sub-stream with its own scratch buffers and a
+ * new vector for every SEQUENCE and SET, and a new ASN1StreamParser for every tagged object. Only
+ * the eager (non-lazy) decoding is kept, for comparison in ASN1InputStreamAllocationTest.
+ */
+class AllocatingASN1InputStream
+    extends ASN1InputStream
+{
+    private final byte[][] tmpBuffers = new byte[11][];
+
+    AllocatingASN1InputStream(byte[] input)
+    {
+        super(input);
+    }
+
+    private AllocatingASN1InputStream(InputStream input)
+    {
+        super(input);
+    }
+
+    protected ASN1Primitive buildObject(
+        int tag,
+        int tagNo,
+        int length)
+        throws IOException
+    {
+        boolean isConstructed = (tag & CONSTRUCTED) != 0;
+
+        DefiniteLengthInputStream defIn = new DefiniteLengthInputStream(this, length, getLimit());
+
+        if ((tag & APPLICATION) != 0)
+        {
+            return new DLApplicationSpecific(isConstructed, tagNo, defIn.toByteArray());
+        }
+
+        if ((tag & TAGGED) != 0)
+        {
+            return new ASN1StreamParser(defIn).readTaggedObject(isConstructed, tagNo);
+        }
+
+        if (isConstructed)
+        {
+            switch (tagNo)
+            {
+            case OCTET_STRING:
+                ASN1EncodableVector v = readVector(defIn);
+                ASN1OctetString[] strings = new ASN1OctetString[v.size()];
+
+                for (int i = 0; i != strings.length; i++)
+                {
+                    strings[i] = (ASN1OctetString)v.get(i);
+                }
+
+                return new BEROctetString(strings);
+            case SEQUENCE:
+                return DLFactory.createSequence(readVector(defIn));
+            case SET:
+                return DLFactory.createSet(readVector(defIn));
+            case EXTERNAL:
+                return new DLExternal(readVector(defIn));
+            default:
+                throw new IOException("unknown tag " + tagNo + " encountered");
+            }
+        }
+
+        return createPrimitiveDERObject(tagNo, defIn, tmpBuffers);
+    }
+
+    ASN1EncodableVector readVector(DefiniteLengthInputStream dIn)
+        throws IOException
+    {
+        if (dIn.getRemaining() < 1)
+        {
+            return new ASN1EncodableVector(0);
+        }
+
+        ASN1InputStream subStream = new AllocatingASN1InputStream(dIn);
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        ASN1Primitive p;
+        while ((p = subStream.readObject()) != null)
+        {
+            v.add(p);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,230 @@
+package org.spongycastle.asn1;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+
+import org.junit.Test;
+import org.spongycastle.util.Strings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Round trip tests for the digit level GeneralizedTime and UTCTime codec in DateUtil, checked
+ * against SimpleDateFormat in GMT, which is what the ASN.1 time classes used before.
+ */
+public class DateUtilTest
+{
+    private static final int ITERATIONS = 2000;
+
+    // 1600-01-01T00:00:00Z and 10000-01-01T00:00:00Z, the range the digit level codec covers
+    private static final long MIN_MILLIS = -11676096000000L;
+    private static final long MAX_MILLIS = 253402300800000L;
+
+    // 1950-01-01T00:00:00Z and 2050-01-01T00:00:00Z, the range of a UTCTime
+    private static final long MIN_UTC_MILLIS = -631152000000L;
+    private static final long MAX_UTC_MILLIS = 2524608000000L;
+
+    private static final String[] ZONES = { "Z", "", "+01", "-05", "+0530", "-0930", "+2359", "-0000" };
+
+    private final Random random = new Random(0x20171018L);
+
+    @Test
+    public void testGeneralizedTimeFractionalSeconds()
+        throws ParseException
+    {
+        for (int i = 0; i != ITERATIONS; i++)
+        {
+            long seconds = floorSeconds(nextMillis(MIN_MILLIS, MAX_MILLIS));
+            String zone = ZONES[random.nextInt(ZONES.length)];
+
+            // no fraction, then every length from one digit to well past milliseconds
+            for (int digits = 0; digits <= 9; digits++)
+            {
+                StringBuilder fraction = new StringBuilder();
+                for (int d = 0; d != digits; d++)
+                {
+                    fraction.append((char)('0' + random.nextInt(10)));
+                }
+
+                String time = format("yyyyMMddHHmmss", seconds) + (digits == 0 ? "" : "." + fraction) + zone;
+                long expected = seconds + fractionMillis(fraction.toString()) - zoneMillis(zone);
+
+                assertEquals(time, expected, new ASN1GeneralizedTime(time).getDate().getTime());
+                assertEquals(time, expected, DateUtil.parseGeneralizedTime(Strings.toByteArray(time)));
+            }
+        }
+    }
+
+    @Test
+    public void testGeneralizedTimeWithoutSeconds()
+        throws ParseException
+    {
+        for (int i = 0; i != ITERATIONS; i++)
+        {
+            long millis = nextMillis(MIN_MILLIS, MAX_MILLIS);
+            long minutes = millis - floorMod(millis, 60 * 1000L);
+            long hours = millis - floorMod(millis, 60 * 60 * 1000L);
+            String zone = ZONES[random.nextInt(ZONES.length)];
+
+            String time = format("yyyyMMddHHmm", minutes) + zone;
+            assertEquals(time, minutes - zoneMillis(zone), new ASN1GeneralizedTime(time).getDate().getTime());
+
+            time = format("yyyyMMddHH", hours) + "Z";
+            assertEquals(time, hours, new ASN1GeneralizedTime(time).getDate().getTime());
+
+            time = format("yyyyMMddHH", hours);
+            assertEquals(time, hours, new ASN1GeneralizedTime(time).getDate().getTime());
+        }
+    }
+
+    @Test
+    public void testGeneralizedTimeRoundTrip()
+        throws ParseException
+    {
+        for (int i = 0; i != ITERATIONS; i++)
+        {
+            long millis = nextMillis(MIN_MILLIS, MAX_MILLIS);
+            ASN1GeneralizedTime time = new DERGeneralizedTime(new Date(millis));
+
+            assertEquals(format("yyyyMMddHHmmss'Z'", millis), Strings.fromByteArray(time.time));
+            assertEquals(floorSeconds(millis), time.getDate().getTime());
+        }
+    }
+
+    @Test
+    public void testUTCTimeRoundTrip()
+        throws ParseException
+    {
+        for (int i = 0; i != ITERATIONS; i++)
+        {
+            long millis = nextMillis(MIN_UTC_MILLIS, MAX_UTC_MILLIS);
+            ASN1UTCTime time = new DERUTCTime(new Date(millis));
+
+            assertEquals(format("yyMMddHHmmss", millis) + "GMT+00:00", time.getTime());
+            assertEquals(floorSeconds(millis), time.getAdjustedDate().getTime());
+        }
+    }
+
+    @Test
+    public void testUTCTimeForms()
+        throws ParseException
+    {
+        for (int i = 0; i != ITERATIONS; i++)
+        {
+            long millis = nextMillis(MIN_UTC_MILLIS, MAX_UTC_MILLIS);
+            long seconds = floorSeconds(millis);
+            long minutes = millis - floorMod(millis, 60 * 1000L);
+            String zone = ZONES[random.nextInt(ZONES.length)];
+
+            String time = format("yyMMddHHmmss", seconds) + zone;
+            assertEquals(time, seconds - zoneMillis(zone), new ASN1UTCTime(time).getAdjustedDate().getTime());
+
+            if (zone.length() != 0)
+            {
+                time = format("yyMMddHHmm", minutes) + zone;
+                assertEquals(time, minutes - zoneMillis(zone), new ASN1UTCTime(time).getAdjustedDate().getTime());
+            }
+        }
+    }
+
+    @Test
+    public void testYearsOutsideDigitCodec()
+        throws ParseException
+    {
+        // before 1600 the Julian calendar applies, these are still written by SimpleDateFormat
+        long[] times = { MIN_MILLIS - 1000, -30610224000000L, -62135769600000L };
+
+        for (int i = 0; i != times.length; i++)
+        {
+            assertNull(DateUtil.formatGeneralizedTime(times[i]));
+            assertEquals(DateUtil.NOT_PARSED, DateUtil.parseGeneralizedTime(Strings.toByteArray(format("yyyyMMddHHmmss'Z'", times[i]))));
+
+            ASN1GeneralizedTime time = new DERGeneralizedTime(new Date(times[i]));
+            assertEquals(format("yyyyMMddHHmmss'Z'", times[i]), Strings.fromByteArray(time.time));
+        }
+
+        // five digit years can't be written as YYYY at all
+        assertNull(DateUtil.formatGeneralizedTime(MAX_MILLIS));
+        assertNull(DateUtil.formatUTCTime(MAX_MILLIS));
+    }
+
+    @Test
+    public void testFormsLeftToSimpleDateFormat()
+    {
+        String[] times = {
+            "20171301000000Z",      // month rolled over by the lenient formatter
+            "20170230000000Z",
+            "20171018240000Z",
+            "20171018236000Z",
+            "20171018235960Z",
+            "20171018235959.Z",     // fraction without digits
+            "2017101823+01",        // offset on an hour on its own
+            "20171018235959+2400",
+            "20171018235959+0160",
+            "20171018235959+1",
+            "20171018235959ZZ",
+            "15991231235959Z",
+        };
+
+        for (int i = 0; i != times.length; i++)
+        {
+            assertEquals(times[i], DateUtil.NOT_PARSED, DateUtil.parseGeneralizedTime(Strings.toByteArray(times[i])));
+        }
+
+        assertEquals(DateUtil.NOT_PARSED, DateUtil.parseAdjustedUTCTime(Strings.toByteArray("1710182359")));
+        assertEquals(DateUtil.NOT_PARSED, DateUtil.parseAdjustedUTCTime(Strings.toByteArray("171018235959+0160")));
+    }
+
+    private long nextMillis(long min, long max)
+    {
+        return min + (long)(random.nextDouble() * (max - min));
+    }
+
+    private static String format(String pattern, long millis)
+    {
+        SimpleDateFormat dateF = new SimpleDateFormat(pattern, Locale.ENGLISH);
+
+        dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
+
+        return dateF.format(new Date(millis));
+    }
+
+    private static long fractionMillis(String fraction)
+    {
+        // one or two digits are tenths and hundredths, anything past milliseconds is dropped
+        String millis = (fraction + "000").substring(0, 3);
+
+        return Integer.parseInt(millis);
+    }
+
+    private static long zoneMillis(String zone)
+    {
+        if (zone.length() < 3)
+        {
+            return 0;
+        }
+
+        int hours = Integer.parseInt(zone.substring(1, 3));
+        int minutes = zone.length() == 5 ? Integer.parseInt(zone.substring(3, 5)) : 0;
+        long offset = (hours * 60L + minutes) * 60 * 1000;
+
+        return zone.charAt(0) == '-' ? -offset : offset;
+    }
+
+    private static long floorSeconds(long millis)
+    {
+        return millis - floorMod(millis, 1000L);
+    }
+
+    private static long floorMod(long x, long y)
+    {
+        long m = x % y;
+
+        return m < 0 ? m + y : m;
+    }
+}
@@ -0,0 +1,157 @@
+package org.spongycastle.asn1;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Many threads forcing the same lazily parsed SEQUENCE or SET at once must all see every element,
+ * whether they win the compare-and-set that publishes the elements or wait for the winner to finish.
+ */
+public class LazyEncodedConcurrencyTest
+{
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 500;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentSequenceReaders()
+        throws Exception
+    {
+        byte[] encoding = new DERSequence(elements()).getEncoded();
+        ASN1Sequence expected = (ASN1Sequence)new ASN1InputStream(encoding).readObject();
+
+        for (int round = 0; round != ROUNDS; round++)
+        {
+            ASN1Sequence lazy = (ASN1Sequence)new ASN1InputStream(encoding, true).readObject();
+
+            assertTrue(lazy instanceof LazyEncodedSequence);
+            readConcurrently(lazy, expected.toArray(), expected.hashCode());
+        }
+    }
+
+    @Test
+    public void testConcurrentSetReaders()
+        throws Exception
+    {
+        byte[] encoding = new DERSet(elements()).getEncoded();
+        ASN1Set expected = (ASN1Set)new ASN1InputStream(encoding).readObject();
+
+        for (int round = 0; round != ROUNDS; round++)
+        {
+            ASN1Set lazy = (ASN1Set)new ASN1InputStream(encoding, true).readObject();
+
+            assertTrue(lazy instanceof LazyEncodedSet);
+            readConcurrently(lazy, expected.toArray(), expected.hashCode());
+        }
+    }
+
+    /**
+     * Release all threads at once on a freshly parsed object, each forcing it through a different
+     * accessor, and check what every one of them read.
+     */
+    private void readConcurrently(final ASN1Primitive lazy, ASN1Encodable[] expected, int expectedHashCode)
+        throws Exception
+    {
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<ASN1Encodable[]>> readers = new ArrayList<Future<ASN1Encodable[]>>();
+
+        for (int i = 0; i != THREADS; i++)
+        {
+            final int accessor = i % 4;
+
+            readers.add(executor.submit(new Callable<ASN1Encodable[]>()
+            {
+                public ASN1Encodable[] call()
+                    throws Exception
+                {
+                    start.await();
+
+                    return read(lazy, accessor);
+                }
+            }));
+        }
+
+        for (int i = 0; i != THREADS; i++)
+        {
+            assertArrayEquals(expected, readers.get(i).get());
+        }
+        assertEquals(expectedHashCode, lazy.hashCode());
+    }
+
+    private static ASN1Encodable[] read(ASN1Primitive lazy, int accessor)
+    {
+        Iterable<ASN1Encodable> elements = (Iterable<ASN1Encodable>)lazy;
+
+        switch (accessor)
+        {
+        case 0:
+            int size = lazy instanceof ASN1Sequence ? ((ASN1Sequence)lazy).size() : ((ASN1Set)lazy).size();
+            ASN1Encodable[] read = new ASN1Encodable[size];
+            for (int i = 0; i != size; i++)
+            {
+                read[i] = lazy instanceof ASN1Sequence ? ((ASN1Sequence)lazy).getObjectAt(i) : ((ASN1Set)lazy).getObjectAt(i);
+            }
+            return read;
+        case 1:
+            List<ASN1Encodable> list = new ArrayList<ASN1Encodable>();
+            for (Iterator<ASN1Encodable> it = elements.iterator(); it.hasNext();)
+            {
+                list.add(it.next());
+            }
+            return list.toArray(new ASN1Encodable[list.size()]);
+        case 2:
+            lazy.hashCode();
+            // fall through
+        default:
+            return lazy instanceof ASN1Sequence ? ((ASN1Sequence)lazy).toArray() : ((ASN1Set)lazy).toArray();
+        }
+    }
+
+    private static ASN1EncodableVector elements()
+        throws IOException
+    {
+        ASN1EncodableVector v = new ASN1EncodableVector();
+
+        for (int i = 0; i != 64; i++)
+        {
+            switch (i % 4)
+            {
+            case 0:
+                v.add(new ASN1Integer(i * 1000003L));
+                break;
+            case 1:
+                v.add(new ASN1ObjectIdentifier("1.2.840.113549.1.9." + i));
+                break;
+            case 2:
+                v.add(new DEROctetString(new byte[i]));
+                break;
+            default:
+                v.add(new DERSequence(new ASN1Encodable[]{ new ASN1Integer(i), new DERUTF8String("elemen " + i) }));
+                break;
+            }
+        }
+
+        return v;
+    }
+}
@@ -0,0 +1,111 @@
+package org.spongycastle.asn1;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.spongycastle.test.MicroBenchmark;
+import org.spongycastle.util.encoders.Base64;
+
+/**
+ * Readers sharing one parsed lazy SEQUENCE, such as a cached partner certificate, with the elements
+ * published once against the version that took the monitor on every accessor.
+ */
+public class LazyEncodedSequenceBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final int READS_PER_THREAD = 10000;
+
+    private static final String CERTIFICATE =
+          "MIIDjzCCAnegAwIBAgIIZn9tQHegeb8wDQYJKoZIhvcNAQENBQAwdjELMAkGA1UE"
+        + "BhMCSUQxEzARBgNVBAgTCkphd2EgQmFyYXQxEDAOBgNVBAcTB0JhbmR1bmcxFDAS"
+        + "BgNVBAoTC1Rva28gTWFrbXVyMRIwEAYDVQQLEwlQZW5qdWFsYW4xFjAUBgNVBAMT"
+        + "DVBlbmp1YWwgQmVyYXMwHhcNMjYxMDE4MDM1ODExWhcNMzYxMDE1MDM1ODExWjB2"
+        + "MQswCQYDVQQGEwJJRDETMBEGA1UECBMKSmF3YSBCYXJhdDEQMA4GA1UEBxMHQmFu"
+        + "ZHVuZzEUMBIGA1UEChMLVG9rbyBNYWttdXIxEjAQBgNVBAsTCVBlbmp1YWxhbjEW"
+        + "MBQGA1UEAxMNUGVuanVhbCBCZXJhczCCASIwDQYJKoZIhvcNAQEBBQADggEPADCC"
+        + "AQoCggEBAJJTcoig+Cxnvj4cZEx+dudG+gTpzpD2wGelgRtj65lyUSjZ4BRWWUp9"
+        + "qFvl7gVIBr3tbRyU/VWOYCg0rO+AWzDI75WgYUaf/Ws2lkWqL9cc5ZO7Jy+OsgFC"
+        + "BhRxa2AmafNVjq9mlFR1b8CpdkyPkmaNDq1UcOE/dp5ekpAMCCsgHH1qWlid/fmf"
+        + "gc+7TqCJzZ9tMM614647o6HPjfaYPOpkAqoSjXssyPAyXN6EuR3eaEkwkTAisutQ"
+        + "60obK1mHpATLFmo6OOL2shi61XAXMuN1UpZ4XVjDIbT2eYq6+OLaqKnrUvDPibHg"
+        + "x+PqSRWoEpBgKtc+XTV2UgBR9V+/2BECAwEAAaMhMB8wHQYDVR0OBBYEFCN2zGCG"
+        + "ABIzrKjtQtTFJgieY0EVMA0GCSqGSIb3DQEBDQUAA4IBAQBN/xDORjJzVTb5IEs6"
+        + "aJsMDAcTjFUnkrphpAxGV2DyQNXqxTKXQIhYo1iUor601qBwUNMY4qL9G8xcn5XR"
+        + "DjSfoSZkAKPRYXlgpuv1t+ic3lcZotCvf8RPG1HJtKfwxWAd+OOJZk8NOhxIXJDg"
+        + "815rt7QlnoGloGtQjrj4lpR0gBM1b9ljx+cWqGnyIVGzCT1Yrm0t2FAi00CtnYOS"
+        + "sp4FEUNgggtNi2qkglRB8U4S61Pvknp/g6PraCXrHE4hUM8KpAo0GLadSWPZ9RaH"
+        + "gjpUYaHlogzg3uSLzrs9cwD0OWXbrbmGqmkVx4EEAiEkovqN3oeBeG3TyBzlph4c"
+        + "D1e9";
+
+    @Test
+    public void sharedReaders()
+        throws Exception
+    {
+        // the contents of the certificate's outer SEQUENCE, as ASN1InputStream hands them over
+        byte[] encoding = Base64.decode(CERTIFICATE);
+        ASN1BufferView view = ASN1BufferView.getInstance(ByteBuffer.wrap(encoding));
+        byte[] contents = new byte[view.getContentLength()];
+        view.getContentsBuffer().get(contents);
+
+        ASN1Sequence before = new SynchronizedLazyEncodedSequence(contents);
+        ASN1Sequence after = new LazyEncodedSequence(contents);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = processors > 1 ? new int[]{ 1, processors } : new int[]{ 1 };
+
+        for (int i = 0; i != threadCounts.length; i++)
+        {
+            ExecutorService executor = Executors.newFixedThreadPool(threadCounts[i]);
+            try
+            {
+                compare("lazy SEQUENCE reads, " + threadCounts[i] + " thread(s)", 0,
+                    readers(executor, threadCounts[i], before), readers(executor, threadCounts[i], after));
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Each operation has every thread walk the shared sequence READS_PER_THREAD times.
+     */
+    private static Operation readers(final ExecutorService executor, int threads, final ASN1Sequence sequence)
+    {
+        final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+
+        for (int i = 0; i != threads; i++)
+        {
+            tasks.add(new Callable<Object>()
+            {
+                public Object call()
+                {
+                    Object last = null;
+                    for (int read = 0; read != READS_PER_THREAD; read++)
+                    {
+                        for (int j = 0, size = sequence.size(); j != size; j++)
+                        {
+                            last = sequence.getObjectAt(j);
+                        }
+                    }
+                    return last;
+                }
+            });
+        }
+
+        return new Operation()
+        {
+            public void run()
+                throws Exception
+            {
+                sink = executor.invokeAll(tasks);
+            }
+        };
+    }
+}
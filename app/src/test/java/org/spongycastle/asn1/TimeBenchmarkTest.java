@@ -0,0 +1,182 @@
+package org.spongycastle.asn1;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SimpleTimeZone;
+
+import org.junit.Test;
+import org.spongycastle.test.MicroBenchmark;
+import org.spongycastle.util.Strings;
+
+/**
+ * The digit level GeneralizedTime and UTCTime codec against the SimpleDateFormat path it replaced.
+ */
+public class TimeBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final Date SIGNING_TIME = new Date(1792295799704L);
+    private static final String GENERALIZED_TIME = "20261018035639.704Z";
+    private static final String UTC_TIME = "261018035639Z";
+
+    @Test
+    public void parseGeneralizedTime()
+        throws Exception
+    {
+        final ASN1GeneralizedTime time = new DERGeneralizedTime(GENERALIZED_TIME);
+
+        compare("GeneralizedTime.getDate", 0, new Operation()
+        {
+            public void run()
+                throws ParseException
+            {
+                sink = SimpleDateFormatTime.getGeneralizedTimeDate(GENERALIZED_TIME);
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws ParseException
+            {
+                sink = time.getDate();
+            }
+        });
+    }
+
+    @Test
+    public void parseUTCTime()
+        throws Exception
+    {
+        final ASN1UTCTime time = new DERUTCTime(UTC_TIME);
+
+        compare("UTCTime.getAdjustedDate", 0, new Operation()
+        {
+            public void run()
+                throws ParseException
+            {
+                sink = SimpleDateFormatTime.getUTCTimeAdjustedDate(time.getAdjustedTime());
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws ParseException
+            {
+                sink = time.getAdjustedDate();
+            }
+        });
+    }
+
+    @Test
+    public void formatTime()
+        throws Exception
+    {
+        compare("new DERUTCTime(Date)", 0, new Operation()
+        {
+            public void run()
+            {
+                sink = new DERUTCTime(SimpleDateFormatTime.formatUTCTime(SIGNING_TIME));
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = new DERUTCTime(SIGNING_TIME);
+            }
+        });
+        compare("new DERGeneralizedTime(Date)", 0, new Operation()
+        {
+            public void run()
+            {
+                sink = new DERGeneralizedTime(SimpleDateFormatTime.formatGeneralizedTime(SIGNING_TIME));
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = new DERGeneralizedTime(SIGNING_TIME);
+            }
+        });
+    }
+
+    /**
+     * What the time classes did before: a new SimpleDateFormat for every call, and the locale
+     * adjustment looked up under a global lock.
+     */
+    private static class SimpleDateFormatTime
+    {
+        private static final Long ZERO = Long.valueOf(0);
+        private static final Map localeCache = new HashMap();
+
+        static Date getGeneralizedTimeDate(String time)
+            throws ParseException
+        {
+            SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmss.SSS'Z'");
+
+            dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
+
+            return epochAdjust(dateF.parse(time));
+        }
+
+        static Date getUTCTimeAdjustedDate(String adjustedTime)
+            throws ParseException
+        {
+            SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmssz");
+
+            dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
+
+            return epochAdjust(dateF.parse(adjustedTime));
+        }
+
+        static String formatUTCTime(Date time)
+        {
+            SimpleDateFormat dateF = new SimpleDateFormat("yyMMddHHmmss'Z'", DateUtil.EN_Locale);
+
+            dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
+
+            return dateF.format(time);
+        }
+
+        static byte[] formatGeneralizedTime(Date time)
+        {
+            SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmss'Z'", DateUtil.EN_Locale);
+
+            dateF.setTimeZone(new SimpleTimeZone(0, "Z"));
+
+            return Strings.toByteArray(dateF.format(time));
+        }
+
+        private static Date epochAdjust(Date date)
+            throws ParseException
+        {
+            Locale locale = Locale.getDefault();
+            if (locale == null)
+            {
+                return date;
+            }
+
+            synchronized (localeCache)
+            {
+                Long adj = (Long)localeCache.get(locale);
+
+                if (adj == null)
+                {
+                    SimpleDateFormat dateF = new SimpleDateFormat("yyyyMMddHHmmssz");
+                    long v = dateF.parse("19700101000000GMT+00:00").getTime();
+
+                    adj = v == 0 ? ZERO : Long.valueOf(v);
+
+                    localeCache.put(locale, adj);
+                }
+
+                if (adj != ZERO)
+                {
+                    return new Date(date.getTime() - adj.longValue());
+                }
+
+                return date;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.spongycastle.asn1.x500;
+
+import java.util.Random;
+
+/**
+ * A corpus of subject DNs of the kind trading partners supply when they are provisioned, generated
+ * from a seed so that every run sees the same names. Most are plain, some have escaped or quoted
+ * separators, hex escapes, stray spaces and multi-valued RDNs.
+ */
+public class PartnerDNs
+{
+    private static final String[] COUNTRIES = { "ID", "SG", "MY", "NL", "US" };
+    private static final String[] PROVINCES = { "Jawa Barat", "DKI Jakarta", "Jawa Timur", "Bali", "Noord-Holland" };
+    private static final String[] CITIES = { "Bandung", "Jakarta Selatan", "Surabaya", "Denpasar", "Amsterdam" };
+    private static final String[] COMPANIES = { "Toko Makmur", "Sumber Rejeki", "Maju Jaya", "Beras Sejahtera", "Tani Mandiri", "Nusantara Niaga" };
+    private static final String[] UNITS = { "Penjualan", "Pembelian", "EDI", "Gudang \\+ Logistik", "Keuangan" };
+
+    public static String[] generate(int count, long seed)
+    {
+        Random random = new Random(seed);
+        String[] names = new String[count];
+
+        for (int i = 0; i != count; i++)
+        {
+            names[i] = generate(random, i);
+        }
+
+        return names;
+    }
+
+    private static String generate(Random random, int index)
+    {
+        String company = pick(random, COMPANIES);
+        String organization;
+
+        switch (random.nextInt(4))
+        {
+        case 0:
+            organization = "PT " + company + "\\, Tbk";
+            break;
+        case 1:
+            organization = "\"CV " + company + ", Cabang " + pick(random, CITIES) + "\"";
+            break;
+        case 2:
+            organization = "PT " + company.replace(' ', '_').replace("_", "\\20");
+            break;
+        default:
+            organization = "PT " + company;
+            break;
+        }
+
+        String commonName = random.nextInt(4) == 0
+            ? "as2." + company.toLowerCase().replace(' ', '-') + ".co.id+SERIALNUMBER=" + (1000 + index)
+            : company + " " + pick(random, UNITS);
+
+        String[] rdns = {
+            "C=" + pick(random, COUNTRIES),
+            "ST=" + pick(random, PROVINCES),
+            "L=" + pick(random, CITIES),
+            "O=" + organization,
+            "OU=" + pick(random, UNITS),
+            "CN=" + commonName,
+            "E=edi" + index + "@" + company.toLowerCase().replace(' ', '-') + ".co.id"
+        };
+
+        StringBuilder name = new StringBuilder();
+        boolean reversed = random.nextBoolean();
+        for (int i = 0; i != rdns.length; i++)
+        {
+            if (i != 0)
+            {
+                name.append(random.nextInt(5) == 0 ? ", " : ",");
+            }
+            name.append(rdns[reversed ? rdns.length - 1 - i : i]);
+        }
+
+        return name.toString();
+    }
+
+    private static String pick(Random random, String[] values)
+    {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,94 @@
+package org.spongycastle.asn1.x500;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.asn1.x500.style.BCStyle;
+import org.spongycastle.asn1.x500.style.PerCallCanonicalStyle;
+import org.spongycastle.test.MicroBenchmark;
+
+/**
+ * X500Name equality and hashing with the canonical form kept by each RDN, against canonicalizing
+ * on every call as before, for issuer DNs as they are matched when certificates are looked up.
+ */
+public class X500NameBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final PerCallCanonicalStyle OLD_STYLE = PerCallCanonicalStyle.INSTANCE;
+
+    private static final String ISSUER = "C=ID,ST=Jawa Barat,L=Bandung,O=PT Toko Makmur\\, Tbk,OU=EDI,CN=Toko Makmur Issuing CA,E=pki@toko-makmur.co.id";
+
+    @Test
+    public void equalsDifferentCase()
+        throws Exception
+    {
+        // the same issuer as written by a partner's certificate, in other case and spacing
+        final X500Name name = new X500Name(ISSUER);
+        final X500Name other = new X500Name("c=id, st=JAWA BARAT, l=BANDUNG, o=pt toko makmur\\, tbk, ou=edi, cn=TOKO MAKMUR ISSUING CA, e=PKI@TOKO-MAKMUR.CO.ID");
+
+        Assert.assertTrue(OLD_STYLE.nameEquals(name, other));
+        Assert.assertTrue(name.equals(other));
+
+        compare("X500Name.equals, 7 RDN issuers differing in case", 0, new Operation()
+        {
+            public void run()
+            {
+                sink = Boolean.valueOf(OLD_STYLE.nameEquals(name, other));
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = Boolean.valueOf(name.equals(other));
+            }
+        });
+    }
+
+    @Test
+    public void equalsDifferentIssuer()
+        throws Exception
+    {
+        final X500Name name = new X500Name(ISSUER);
+        final X500Name other = new X500Name(ISSUER.replace("Issuing CA", "Root CA"));
+
+        Assert.assertFalse(OLD_STYLE.nameEquals(name, other));
+        Assert.assertFalse(name.equals(other));
+
+        compare("X500Name.equals, 7 RDN issuers differing in CN", 0, new Operation()
+        {
+            public void run()
+            {
+                sink = Boolean.valueOf(OLD_STYLE.nameEquals(name, other));
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = Boolean.valueOf(name.equals(other));
+            }
+        });
+    }
+
+    @Test
+    public void hashCodeOfSharedRDNs()
+        throws Exception
+    {
+        // new X500Name instances over the same RDNs, as made when a name is given another style
+        final X500Name name = new X500Name(ISSUER);
+
+        Assert.assertEquals(OLD_STYLE.calculateHashCode(name), name.hashCode());
+
+        compare("X500Name.hashCode, new name over the same 7 RDNs", 0, new Operation()
+        {
+            public void run()
+            {
+                sink = Integer.valueOf(OLD_STYLE.calculateHashCode(new X500Name(OLD_STYLE, name)));
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = Integer.valueOf(new X500Name(BCStyle.INSTANCE, name).hashCode());
+            }
+        });
+    }
+}
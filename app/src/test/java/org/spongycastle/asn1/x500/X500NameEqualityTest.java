@@ -0,0 +1,184 @@
+package org.spongycastle.asn1.x500;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.spongycastle.asn1.ASN1String;
+import org.spongycastle.asn1.DERUTF8String;
+import org.spongycastle.asn1.x500.style.BCStyle;
+import org.spongycastle.asn1.x500.style.PerCallCanonicalStyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks X500Name equality and hash codes, built on the canonical form each RDN keeps, against
+ * canonicalizing the values on every call as PerCallCanonicalStyle still does.
+ */
+public class X500NameEqualityTest
+{
+    private static final PerCallCanonicalStyle OLD_STYLE = PerCallCanonicalStyle.INSTANCE;
+
+    private final Random random = new Random(0x20171018L);
+
+    @Test
+    public void testVariantsOfCorpus()
+    {
+        String[] names = PartnerDNs.generate(1000, 0x20171018L);
+
+        for (int i = 0; i != names.length; i++)
+        {
+            X500Name name = new X500Name(names[i]);
+            X500Name[] variants = {
+                new X500Name(changeCase(names[i])),
+                new X500Name(addSpaces(names[i])),
+                new X500Name(addSpaces(changeCase(names[i]))),
+                reverse(name),
+                asUTF8(name),
+                new X500Name(changeOneLetter(names[i]))
+            };
+
+            assertSameHashCode(name);
+            for (int j = 0; j != variants.length; j++)
+            {
+                assertSameHashCode(variants[j]);
+                assertSameEquality(name, variants[j]);
+                assertSameEquality(variants[j], name);
+            }
+
+            // every variant but the last names the same entity
+            for (int j = 0; j != variants.length - 1; j++)
+            {
+                assertTrue(names[i] + " / " + variants[j], name.equals(variants[j]));
+                assertEquals(names[i] + " / " + variants[j], name.hashCode(), variants[j].hashCode());
+            }
+            assertFalse(names[i], name.equals(variants[variants.length - 1]));
+        }
+    }
+
+    @Test
+    public void testDifferentNames()
+    {
+        String[] names = PartnerDNs.generate(1000, 0x20171019L);
+
+        for (int i = 0; i != names.length; i++)
+        {
+            X500Name name = new X500Name(names[i]);
+            X500Name other = new X500Name(changeCase(names[random.nextInt(names.length)]));
+
+            assertSameEquality(name, other);
+            assertSameEquality(other, name);
+        }
+    }
+
+    @Test
+    public void testMultiValued()
+    {
+        X500Name name = new X500Name("CN=as2.toko-makmur.co.id+SERIALNUMBER=1001,O=Toko Makmur,C=ID");
+        X500Name[] variants = {
+            new X500Name("SERIALNUMBER=1001+CN=AS2.Toko-Makmur.co.id,O=toko  makmur,C=id"),
+            new X500Name("CN=as2.toko-makmur.co.id+SERIALNUMBER=1002,O=Toko Makmur,C=ID"),
+            new X500Name("CN=as2.toko-makmur.co.id,O=Toko Makmur,C=ID"),
+            new X500Name("CN=as2.toko-makmur.co.id,SERIALNUMBER=1001,O=Toko Makmur,C=ID")
+        };
+
+        assertSameHashCode(name);
+        for (int i = 0; i != variants.length; i++)
+        {
+            assertSameHashCode(variants[i]);
+            assertSameEquality(name, variants[i]);
+            assertSameEquality(variants[i], name);
+        }
+
+        assertTrue(name.equals(variants[0]));
+        assertFalse(name.equals(variants[1]));
+        assertFalse(name.equals(variants[2]));
+        assertFalse(name.equals(variants[3]));
+    }
+
+    private static void assertSameHashCode(X500Name name)
+    {
+        assertEquals(name.toString(), OLD_STYLE.calculateHashCode(name), name.hashCode());
+    }
+
+    private static void assertSameEquality(X500Name name, X500Name other)
+    {
+        assertEquals(name + " / " + other, OLD_STYLE.nameEquals(name, other), name.equals(other));
+    }
+
+    private String changeCase(String name)
+    {
+        StringBuilder changed = new StringBuilder(name);
+
+        for (int i = 0; i != changed.length(); i++)
+        {
+            char c = changed.charAt(i);
+            if (random.nextBoolean())
+            {
+                changed.setCharAt(i, Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+            }
+        }
+
+        return changed.toString();
+    }
+
+    private String addSpaces(String name)
+    {
+        StringBuilder changed = new StringBuilder(name.length() + 16);
+
+        for (int i = 0; i != name.length(); i++)
+        {
+            char c = name.charAt(i);
+
+            changed.append(c);
+            if ((c == ' ' || c == ',' || c == '=') && random.nextBoolean())
+            {
+                changed.append(' ');
+            }
+        }
+
+        return changed.toString();
+    }
+
+    private String changeOneLetter(String name)
+    {
+        // a letter of the last value, after its '=' and any escape
+        int pos = name.lastIndexOf('=') + 1 + random.nextInt(2);
+
+        StringBuilder changed = new StringBuilder(name);
+        changed.setCharAt(pos, changed.charAt(pos) == 'q' ? 'r' : 'q');
+
+        return changed.toString();
+    }
+
+    private static X500Name reverse(X500Name name)
+    {
+        RDN[] rdns = name.getRDNs();
+        RDN[] reversed = new RDN[rdns.length];
+
+        for (int i = 0; i != rdns.length; i++)
+        {
+            reversed[rdns.length - 1 - i] = rdns[i];
+        }
+
+        return new X500Name(reversed);
+    }
+
+    private static X500Name asUTF8(X500Name name)
+    {
+        RDN[] rdns = name.getRDNs();
+
+        for (int i = 0; i != rdns.length; i++)
+        {
+            if (!rdns[i].isMultiValued())
+            {
+                AttributeTypeAndValue atv = rdns[i].getFirst();
+
+                rdns[i] = new RDN(atv.getType(), new DERUTF8String(((ASN1String)atv.getValue()).getString()));
+            }
+        }
+
+        return new X500Name(BCStyle.INSTANCE, rdns);
+    }
+}
@@ -0,0 +1,45 @@
+package org.spongycastle.asn1.x500.style;
+
+import org.junit.Test;
+import org.spongycastle.asn1.x500.PartnerDNs;
+import org.spongycastle.asn1.x500.RDN;
+import org.spongycastle.test.MicroBenchmark;
+
+/**
+ * The single pass DN parser in IETFUtils against the tokenizer based one it replaced, over a corpus
+ * of partner subject DNs as read when partners are provisioned.
+ */
+public class DNParserBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final String[] NAMES = PartnerDNs.generate(1000, 0x20171018L);
+
+    @Test
+    public void parseCorpus()
+        throws Exception
+    {
+        compare("IETFUtils.rDNsFromString, 1000 partner DNs", 0, new Operation()
+        {
+            public void run()
+            {
+                RDN[] rdns = null;
+                for (int i = 0; i != NAMES.length; i++)
+                {
+                    rdns = TokenizingIETFUtils.rDNsFromString(NAMES[i], BCStyle.INSTANCE);
+                }
+                sink = rdns;
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                RDN[] rdns = null;
+                for (int i = 0; i != NAMES.length; i++)
+                {
+                    rdns = IETFUtils.rDNsFromString(NAMES[i], BCStyle.INSTANCE);
+                }
+                sink = rdns;
+            }
+        });
+    }
+}
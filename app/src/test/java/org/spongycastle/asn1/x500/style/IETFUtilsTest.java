@@ -0,0 +1,262 @@
+package org.spongycastle.asn1.x500.style;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.spongycastle.asn1.ASN1Encodable;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1String;
+import org.spongycastle.asn1.x500.AttributeTypeAndValue;
+import org.spongycastle.asn1.x500.PartnerDNs;
+import org.spongycastle.asn1.x500.RDN;
+import org.spongycastle.asn1.x500.X500Name;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the single pass DN parser in IETFUtils.addRDNs, pinning how it treats escapes, quotes,
+ * a second '=' and multi-valued RDNs, and checking it against the tokenizer based parser it
+ * replaced (TokenizingIETFUtils).
+ */
+public class IETFUtilsTest
+{
+    @Test
+    public void testEscapedSeparators()
+    {
+        RDN[] rdns = parse("CN=a\\,b\\+c\\=d\\\"e\\\\f,O=x");
+
+        assertEquals(2, rdns.length);
+        assertEquals("a,b+c=d\"e\\f", value(rdns[0]));
+        assertEquals("x", value(rdns[1]));
+    }
+
+    @Test
+    public void testHexEscapes()
+    {
+        assertEquals("Toko Makmur", value(parse("O=Toko\\20Makmur")[0]));
+        assertEquals("a,b", value(parse("O=a\\2cb")[0]));
+
+        // an escaped '#' at the start is a plain character, not the start of a hex encoding
+        assertEquals("#abc", value(parse("CN=\\#abc")[0]));
+    }
+
+    @Test
+    public void testQuotedValues()
+    {
+        RDN[] rdns = parse("O=\"CV Maju, Cabang+Bandung=1\",C=ID");
+
+        assertEquals(2, rdns.length);
+        assertEquals("CV Maju, Cabang+Bandung=1", value(rdns[0]));
+        assertEquals("ID", value(rdns[1]));
+    }
+
+    @Test
+    public void testSpaces()
+    {
+        RDN[] rdns = parse("  CN =  Penjual  Beras  , O=x");
+
+        assertEquals(BCStyle.CN, rdns[0].getFirst().getType());
+        assertEquals("Penjual  Beras", value(rdns[0]));
+
+        // an escaped trailing space is kept
+        assertEquals("a ", value(parse("CN=a\\ ")[0]));
+    }
+
+    @Test
+    public void testSecondEquals()
+    {
+        // the tokenizer stopped a value at a second '=', and dropped what followed
+        RDN[] rdns = parse("CN=a=b,O=c");
+
+        assertEquals(2, rdns.length);
+        assertEquals("a", value(rdns[0]));
+        assertEquals("c", value(rdns[1]));
+    }
+
+    @Test
+    public void testMultiValued()
+    {
+        RDN[] rdns = parse("CN=as2.toko-makmur.co.id+SERIALNUMBER=1001+E=edi@toko-makmur.co.id,O=x");
+
+        assertEquals(2, rdns.length);
+        assertTrue(rdns[0].isMultiValued());
+        assertFalse(rdns[1].isMultiValued());
+
+        // the values of a multi-valued RDN are held in a SET, so are found by type rather than position
+        assertEquals(3, rdns[0].size());
+        assertEquals("as2.toko-makmur.co.id", value(rdns[0], BCStyle.CN));
+        assertEquals("1001", value(rdns[0], BCStyle.SERIALNUMBER));
+        assertEquals("edi@toko-makmur.co.id", value(rdns[0], BCStyle.E));
+    }
+
+    @Test
+    public void testBadlyFormatted()
+    {
+        String[] names = { "CN", "CN=a,O", "CN=a+O", "CN=a+" };
+
+        for (int i = 0; i != names.length; i++)
+        {
+            try
+            {
+                parse(names[i]);
+                fail(names[i]);
+            }
+            catch (IllegalArgumentException e)
+            {
+                assertEquals("badly formatted directory string", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testLoneBackslash()
+    {
+        // the tokenizer based parser failed with an ArrayIndexOutOfBoundsException here, a lone
+        // backslash is now reported like any other badly formatted value
+        try
+        {
+            TokenizingIETFUtils.rDNsFromString("CN=\\", BCStyle.INSTANCE);
+            fail("old parser accepted a lone backslash");
+        }
+        catch (ArrayIndexOutOfBoundsException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            parse("CN=\\");
+            fail("lone backslash accepted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCorpusMatchesTokenizer()
+    {
+        String[] names = PartnerDNs.generate(2000, 0x20171018L);
+
+        for (int i = 0; i != names.length; i++)
+        {
+            assertSameParse(names[i]);
+        }
+    }
+
+    @Test
+    public void testMutatedCorpusMatchesTokenizer()
+    {
+        String[] names = PartnerDNs.generate(2000, 0x20171019L);
+        String special = ",+=\"\\ #0aZ";
+        Random random = new Random(0x20171019L);
+
+        for (int i = 0; i != names.length; i++)
+        {
+            StringBuilder name = new StringBuilder(names[i]);
+
+            for (int j = random.nextInt(4); j >= 0; j--)
+            {
+                int pos = random.nextInt(name.length() + 1);
+                if (random.nextBoolean() && pos < name.length())
+                {
+                    name.deleteCharAt(pos);
+                }
+                else
+                {
+                    name.insert(pos, special.charAt(random.nextInt(special.length())));
+                }
+            }
+
+            assertSameParse(name.toString());
+        }
+    }
+
+    /**
+     * Both parsers must give the same RDNs or fail the same way, apart from the lone backslash
+     * the old parser fell over on.
+     */
+    private static void assertSameParse(String name)
+    {
+        RDN[] expected = null;
+        RuntimeException expectedFailure = null;
+        try
+        {
+            expected = TokenizingIETFUtils.rDNsFromString(name, BCStyle.INSTANCE);
+        }
+        catch (RuntimeException e)
+        {
+            expectedFailure = e;
+        }
+
+        try
+        {
+            RDN[] rdns = parse(name);
+
+            if (expectedFailure != null)
+            {
+                fail(name + " parsed, old parser threw " + expectedFailure);
+            }
+            assertArrayEquals(name, encodings(expected), encodings(rdns));
+        }
+        catch (RuntimeException e)
+        {
+            if (expectedFailure == null)
+            {
+                throw e;
+            }
+
+            Class expectedClass = expectedFailure instanceof ArrayIndexOutOfBoundsException
+                ? IllegalArgumentException.class : expectedFailure.getClass();
+
+            assertEquals(name, expectedClass, e.getClass());
+        }
+    }
+
+    private static RDN[] parse(String name)
+    {
+        return IETFUtils.rDNsFromString(name, BCStyle.INSTANCE);
+    }
+
+    private static String value(RDN rdn)
+    {
+        return string(rdn.getFirst().getValue());
+    }
+
+    private static String value(RDN rdn, ASN1ObjectIdentifier type)
+    {
+        AttributeTypeAndValue[] attributes = rdn.getTypesAndValues();
+
+        for (int i = 0; i != attributes.length; i++)
+        {
+            if (attributes[i].getType().equals(type))
+            {
+                return string(attributes[i].getValue());
+            }
+        }
+
+        throw new IllegalArgumentException("no " + type + " in RDN");
+    }
+
+    private static String string(ASN1Encodable value)
+    {
+        return ((ASN1String)value).getString();
+    }
+
+    private static byte[] encodings(RDN[] rdns)
+    {
+        try
+        {
+            return new X500Name(rdns).getEncoded();
+        }
+        catch (java.io.IOException e)
+        {
+            throw new IllegalStateException(e.toString());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.spongycastle.asn1.x500.style;
+
+import org.spongycastle.asn1.ASN1Encodable;
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.ASN1Primitive;
+import org.spongycastle.asn1.ASN1Sequence;
+import org.spongycastle.asn1.x500.AttributeTypeAndValue;
+import org.spongycastle.asn1.x500.RDN;
+import org.spongycastle.asn1.x500.X500Name;
+
+/**
+ * BCStyle with name equality and hashing as they were before RDN kept its canonical form: every
+ * comparison and every hash code canonicalizes the values again. Kept for comparison in
+ * X500NameEqualityTest and X500NameBenchmarkTest.
+ */
+public class PerCallCanonicalStyle
+    extends BCStyle
+{
+    public static final PerCallCanonicalStyle INSTANCE = new PerCallCanonicalStyle();
+
+    /**
+     * X500Name.equals as it was, without the check of the hash codes.
+     */
+    public boolean nameEquals(X500Name name, Object obj)
+    {
+        if (obj == name)
+        {
+            return true;
+        }
+
+        if (!(obj instanceof X500Name || obj instanceof ASN1Sequence))
+        {
+            return false;
+        }
+
+        ASN1Primitive derO = ((ASN1Encodable)obj).toASN1Primitive();
+
+        if (name.toASN1Primitive().equals(derO))
+        {
+            return true;
+        }
+
+        try
+        {
+            return areEqual(name, X500Name.getInstance(derO));
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    private int calcHashCode(ASN1Encodable enc)
+    {
+        String value = IETFUtils.canonicalString(enc);
+        return value.hashCode();
+    }
+
+    public int calculateHashCode(X500Name name)
+    {
+        int hashCodeValue = 0;
+        RDN[] rdns = name.getRDNs();
+
+        // this needs to be order independent, like equals
+        for (int i = 0; i != rdns.length; i++)
+        {
+            if (rdns[i].isMultiValued())
+            {
+                AttributeTypeAndValue[] atv = rdns[i].getTypesAndValues();
+
+                for (int j = 0; j != atv.length; j++)
+                {
+                    hashCodeValue ^= atv[j].getType().hashCode();
+                    hashCodeValue ^= calcHashCode(atv[j].getValue());
+                }
+            }
+            else
+            {
+                hashCodeValue ^= rdns[i].getFirst().getType().hashCode();
+                hashCodeValue ^= calcHashCode(rdns[i].getFirst().getValue());
+            }
+        }
+
+        return hashCodeValue;
+    }
+
+    protected boolean rdnAreEqual(RDN rdn1, RDN rdn2)
+    {
+        if (rdn1.size() != rdn2.size())
+        {
+            return false;
+        }
+
+        AttributeTypeAndValue[] atvs1 = rdn1.getTypesAndValues();
+        AttributeTypeAndValue[] atvs2 = rdn2.getTypesAndValues();
+
+        if (atvs1.length != atvs2.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i != atvs1.length; i++)
+        {
+            if (!atvAreEqual(atvs1[i], atvs2[i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean atvAreEqual(AttributeTypeAndValue atv1, AttributeTypeAndValue atv2)
+    {
+        if (atv1 == atv2)
+        {
+            return true;
+        }
+
+        if (null == atv1 || null == atv2)
+        {
+            return false;
+        }
+
+        ASN1ObjectIdentifier o1 = atv1.getType();
+        ASN1ObjectIdentifier o2 = atv2.getType();
+
+        if (!o1.equals(o2))
+        {
+            return false;
+        }
+
+        String v1 = IETFUtils.canonicalString(atv1.getValue());
+        String v2 = IETFUtils.canonicalString(atv2.getValue());
+
+        return v1.equals(v2);
+    }
+}
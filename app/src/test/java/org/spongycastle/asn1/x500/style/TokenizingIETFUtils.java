@@ -0,0 +1,185 @@
+package org.spongycastle.asn1.x500.style;
+
+import org.spongycastle.asn1.ASN1ObjectIdentifier;
+import org.spongycastle.asn1.x500.RDN;
+import org.spongycastle.asn1.x500.X500NameBuilder;
+import org.spongycastle.asn1.x500.X500NameStyle;
+
+import java.util.Vector;
+
+/**
+ * IETFUtils.rDNsFromString as it was before the single pass parser: a new X500NameTokenizer per
+ * RDN and per '+' and '=' split, Vectors for multi-valued RDNs and unescaping through a String
+ * copy of each value. Kept for comparison in IETFUtilsTest and DNParserBenchmarkTest.
+ */
+class TokenizingIETFUtils {
+    private static String unescape(String elt) {
+        if (elt.length() == 0 || (elt.indexOf('\\') < 0 && elt.indexOf('"') < 0)) {
+            return elt.trim();
+        }
+
+        char[] elts = elt.toCharArray();
+        boolean escaped = false;
+        boolean quoted = false;
+        StringBuffer buf = new StringBuffer(elt.length());
+        int start = 0;
+
+        // if it's an escaped hash string and not an actual encoding in string form
+        // we need to leave it escaped.
+        if (elts[0] == '\\') {
+            if (elts[1] == '#') {
+                start = 2;
+                buf.append("\\#");
+            }
+        }
+
+        boolean nonWhiteSpaceEncountered = false;
+        int lastEscaped = 0;
+        char hex1 = 0;
+
+        for (int i = start; i != elts.length; i++) {
+            char c = elts[i];
+
+            if (c != ' ') {
+                nonWhiteSpaceEncountered = true;
+            }
+
+            if (c == '"') {
+                if (!escaped) {
+                    quoted = !quoted;
+                } else {
+                    buf.append(c);
+                }
+                escaped = false;
+            } else if (c == '\\' && !(escaped || quoted)) {
+                escaped = true;
+                lastEscaped = buf.length();
+            } else {
+                if (c == ' ' && !escaped && !nonWhiteSpaceEncountered) {
+                    continue;
+                }
+                if (escaped && isHexDigit(c)) {
+                    if (hex1 != 0) {
+                        buf.append((char) (convertHex(hex1) * 16 + convertHex(c)));
+                        escaped = false;
+                        hex1 = 0;
+                        continue;
+                    }
+                    hex1 = c;
+                    continue;
+                }
+                buf.append(c);
+                escaped = false;
+            }
+        }
+
+        if (buf.length() > 0) {
+            while (buf.charAt(buf.length() - 1) == ' ' && lastEscaped != (buf.length() - 1)) {
+                buf.setLength(buf.length() - 1);
+            }
+        }
+
+        return buf.toString();
+    }
+
+    private static boolean isHexDigit(char c) {
+        return ('0' <= c && c <= '9') || ('a' <= c && c <= 'f') || ('A' <= c && c <= 'F');
+    }
+
+    private static int convertHex(char c) {
+        if ('0' <= c && c <= '9') {
+            return c - '0';
+        }
+        if ('a' <= c && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return c - 'A' + 10;
+    }
+
+    static RDN[] rDNsFromString(String name, X500NameStyle x500Style) {
+        X500NameTokenizer nTok = new X500NameTokenizer(name);
+        X500NameBuilder builder = new X500NameBuilder(x500Style);
+
+        while (nTok.hasMoreTokens()) {
+            String token = nTok.nextToken();
+
+            if (token.indexOf('+') > 0) {
+                X500NameTokenizer pTok = new X500NameTokenizer(token, '+');
+                X500NameTokenizer vTok = new X500NameTokenizer(pTok.nextToken(), '=');
+
+                String attr = vTok.nextToken();
+
+                if (!vTok.hasMoreTokens()) {
+                    throw new IllegalArgumentException("badly formatted directory string");
+                }
+
+                String value = vTok.nextToken();
+                ASN1ObjectIdentifier oid = x500Style.attrNameToOID(attr.trim());
+
+                if (pTok.hasMoreTokens()) {
+                    Vector oids = new Vector();
+                    Vector values = new Vector();
+
+                    oids.addElement(oid);
+                    values.addElement(unescape(value));
+
+                    while (pTok.hasMoreTokens()) {
+                        vTok = new X500NameTokenizer(pTok.nextToken(), '=');
+
+                        attr = vTok.nextToken();
+
+                        if (!vTok.hasMoreTokens()) {
+                            throw new IllegalArgumentException("badly formatted directory string");
+                        }
+
+                        value = vTok.nextToken();
+                        oid = x500Style.attrNameToOID(attr.trim());
+
+
+                        oids.addElement(oid);
+                        values.addElement(unescape(value));
+                    }
+
+                    builder.addMultiValuedRDN(toOIDArray(oids), toValueArray(values));
+                } else {
+                    builder.addRDN(oid, unescape(value));
+                }
+            } else {
+                X500NameTokenizer vTok = new X500NameTokenizer(token, '=');
+
+                String attr = vTok.nextToken();
+
+                if (!vTok.hasMoreTokens()) {
+                    throw new IllegalArgumentException("badly formatted directory string");
+                }
+
+                String value = vTok.nextToken();
+                ASN1ObjectIdentifier oid = x500Style.attrNameToOID(attr.trim());
+
+                builder.addRDN(oid, unescape(value));
+            }
+        }
+
+        return builder.build().getRDNs();
+    }
+
+    private static String[] toValueArray(Vector values) {
+        String[] tmp = new String[values.size()];
+
+        for (int i = 0; i != tmp.length; i++) {
+            tmp[i] = (String) values.elementAt(i);
+        }
+
+        return tmp;
+    }
+
+    private static ASN1ObjectIdentifier[] toOIDArray(Vector oids) {
+        ASN1ObjectIdentifier[] tmp = new ASN1ObjectIdentifier[oids.size()];
+
+        for (int i = 0; i != tmp.length; i++) {
+            tmp[i] = (ASN1ObjectIdentifier) oids.elementAt(i);
+        }
+
+        return tmp;
+    }
+}
@@ -0,0 +1,142 @@
+package org.spongycastle.mail.smime.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.test.MicroBenchmark;
+
+/**
+ * Run based CRLFOutputStream against the per-byte version it replaced, over multi-megabyte text
+ * bodies written in 4 KB blocks, into a plain stream and into a digest as when signing.
+ */
+public class CRLFOutputStreamBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final int BODY_LENGTH = 4 * 1024 * 1024;
+    private static final int BLOCK_LENGTH = 4096;
+
+    @Test
+    public void lfLines()
+        throws Exception
+    {
+        compareStreams("LF lines", lines(BODY_LENGTH, "\n"));
+    }
+
+    @Test
+    public void crlfLines()
+        throws Exception
+    {
+        compareStreams("CRLF lines", lines(BODY_LENGTH, "\r\n"));
+    }
+
+    private static void compareStreams(String name, final byte[] body)
+        throws Exception
+    {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+        writeBlocks(new PerByteCRLFOutputStream(expected), body);
+        writeBlocks(new CRLFOutputStream(actual), body);
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+
+        final OutputStream before = new PerByteCRLFOutputStream(new NullOutputStream());
+        final OutputStream after = new CRLFOutputStream(new NullOutputStream());
+
+        compare("CRLFOutputStream, 4 MB of " + name, body.length, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                writeBlocks(before, body);
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                writeBlocks(after, body);
+            }
+        });
+
+        final OutputStream digestBefore = new PerByteCRLFOutputStream(new DigestOutputStream(new NullOutputStream(), MessageDigest.getInstance("SHA-256")));
+        final OutputStream digestAfter = new CRLFOutputStream(new DigestOutputStream(new NullOutputStream(), MessageDigest.getInstance("SHA-256")));
+
+        compare("CRLFOutputStream into SHA-256, 4 MB of " + name, body.length, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                writeBlocks(digestBefore, body);
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                writeBlocks(digestAfter, body);
+            }
+        });
+    }
+
+    private static void writeBlocks(OutputStream out, byte[] body)
+        throws IOException
+    {
+        for (int off = 0; off < body.length; off += BLOCK_LENGTH)
+        {
+            out.write(body, off, Math.min(BLOCK_LENGTH, body.length - off));
+        }
+    }
+
+    /**
+     * CRLFOutputStream as it was, handing every byte to write(int).
+     */
+    private static class PerByteCRLFOutputStream
+        extends FilterOutputStream
+    {
+        private static final byte[] newline = { '\r', '\n' };
+
+        private int lastb = -1;
+
+        PerByteCRLFOutputStream(OutputStream outputstream)
+        {
+            super(outputstream);
+        }
+
+        public void write(int i)
+            throws IOException
+        {
+            if (i == '\r')
+            {
+                out.write(newline);
+            }
+            else if (i == '\n')
+            {
+                if (lastb != '\r')
+                {
+                    out.write(newline);
+                }
+            }
+            else
+            {
+                out.write(i);
+            }
+
+            lastb = i;
+        }
+
+        public void write(byte[] buf, int off, int len)
+            throws IOException
+        {
+            for (int i = off; i != off + len; i++)
+            {
+                this.write(buf[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.spongycastle.operator.jcajce;
+
+import java.lang.reflect.Field;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
+import org.spongycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.operator.ContentVerifier;
+import org.spongycastle.operator.DigestCalculator;
+import org.spongycastle.test.MicroBenchmark;
+
+/**
+ * The setup cost of the JCA builders, made once per message as the signed receipts are checked,
+ * with the shared OperatorHelper.DEFAULT against a new OperatorHelper over a new DefaultJcaJceHelper
+ * per builder as before.
+ */
+public class JcaBuilderBenchmarkTest
+    extends MicroBenchmark
+{
+    private static final AlgorithmIdentifier SHA512 = new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha512);
+    private static final AlgorithmIdentifier SHA512_WITH_RSA = new AlgorithmIdentifier(PKCSObjectIdentifiers.sha512WithRSAEncryption);
+
+    private static final byte[] DATA = random(1024);
+
+    @Test
+    public void digestCalculator()
+        throws Exception
+    {
+        Assert.assertArrayEquals(oldDigest(), newDigest());
+
+        compare("JcaDigestCalculatorProviderBuilder, SHA-512 calculator", 0, new Operation()
+        {
+            public void run()
+                throws Exception
+            {
+                JcaDigestCalculatorProviderBuilder builder = new JcaDigestCalculatorProviderBuilder();
+
+                setHelper(builder, new UncachedOperatorHelper());
+
+                sink = builder.build().get(SHA512);
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws Exception
+            {
+                sink = new JcaDigestCalculatorProviderBuilder().build().get(SHA512);
+            }
+        });
+    }
+
+    @Test
+    public void contentVerifier()
+        throws Exception
+    {
+        KeyPairGenerator kpGen = KeyPairGenerator.getInstance("RSA");
+
+        kpGen.initialize(2048);
+
+        final PublicKey publicKey = kpGen.generateKeyPair().getPublic();
+
+        compare("JcaContentVerifierProviderBuilder, SHA512withRSA verifier", 0, new Operation()
+        {
+            public void run()
+                throws Exception
+            {
+                JcaContentVerifierProviderBuilder builder = new JcaContentVerifierProviderBuilder();
+
+                setHelper(builder, new UncachedOperatorHelper());
+
+                sink = builder.build(publicKey).get(SHA512_WITH_RSA);
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws Exception
+            {
+                sink = new JcaContentVerifierProviderBuilder().build(publicKey).get(SHA512_WITH_RSA);
+            }
+        });
+    }
+
+    private static byte[] oldDigest()
+        throws Exception
+    {
+        JcaDigestCalculatorProviderBuilder builder = new JcaDigestCalculatorProviderBuilder();
+
+        setHelper(builder, new UncachedOperatorHelper());
+
+        return digest(builder.build().get(SHA512));
+    }
+
+    private static byte[] newDigest()
+        throws Exception
+    {
+        return digest(new JcaDigestCalculatorProviderBuilder().build().get(SHA512));
+    }
+
+    private static byte[] digest(DigestCalculator calculator)
+        throws Exception
+    {
+        calculator.getOutputStream().write(DATA);
+
+        return calculator.getDigest();
+    }
+
+    /**
+     * The builders have no way to be given a helper other than through a provider, so the one
+     * they used to create for themselves is put in place directly.
+     */
+    private static void setHelper(Object builder, OperatorHelper helper)
+        throws Exception
+    {
+        Field field = builder.getClass().getDeclaredField("helper");
+
+        field.setAccessible(true);
+        field.set(builder, helper);
+    }
+}
@@ -0,0 +1,71 @@
+package org.spongycastle.operator.jcajce;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.spongycastle.asn1.nist.NISTObjectIdentifiers;
+import org.spongycastle.asn1.x509.AlgorithmIdentifier;
+import org.spongycastle.jcajce.util.DefaultJcaJceHelper;
+import org.spongycastle.jcajce.util.JcaJceHelper;
+import org.spongycastle.jcajce.util.MessageDigestUtils;
+
+/**
+ * The helper each JCA builder created for itself before they shared OperatorHelper.DEFAULT: a new
+ * DefaultJcaJceHelper, searching the provider list for every digest, with no cache of the digest
+ * names that worked. Kept for comparison in JcaBuilderBenchmarkTest.
+ */
+class UncachedOperatorHelper
+    extends OperatorHelper
+{
+    private static final Map oids = new HashMap();
+
+    static
+    {
+        oids.put(NISTObjectIdentifiers.id_sha512, "SHA512");
+    }
+
+    private final JcaJceHelper helper;
+
+    UncachedOperatorHelper()
+    {
+        this(new DefaultJcaJceHelper());
+    }
+
+    private UncachedOperatorHelper(JcaJceHelper helper)
+    {
+        super(helper);
+
+        this.helper = helper;
+    }
+
+    MessageDigest createDigest(AlgorithmIdentifier digAlgId)
+        throws GeneralSecurityException
+    {
+        MessageDigest dig;
+
+        try
+        {
+            dig = helper.createMessageDigest(MessageDigestUtils.getDigestName(digAlgId.getAlgorithm()));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            //
+            // try an alternate
+            //
+            if (oids.get(digAlgId.getAlgorithm()) != null)
+            {
+                String digestAlgorithm = (String)oids.get(digAlgId.getAlgorithm());
+                dig = helper.createMessageDigest(digestAlgorithm);
+            }
+            else
+            {
+                throw e;
+            }
+        }
+
+        return dig;
+    }
+}
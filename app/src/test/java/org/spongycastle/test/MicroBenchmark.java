@@ -0,0 +1,175 @@
+package org.spongycastle.test;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+
+/**
+ * Base class for the microbenchmarks kept next to the unit tests. A benchmark times the code as it
+ * is now against a copy of the implementation it replaced, so the two can be compared on the same
+ * machine. They are skipped unless asked for, as in
+ * <pre>
+ *     ./gradlew :app:testDebugUnitTest -Pbenchmark --tests '*BenchmarkTest'
+ * </pre>
+ * Each case is warmed up, then timed over several rounds, the two sides of a comparison taking turns;
+ * the median is printed in ns per operation, with MB/s for the stream cases.
+ */
+public abstract class MicroBenchmark
+{
+    private static final long WARMUP_NANOS = 1000L * 1000 * 1000;
+    private static final long ROUND_NANOS = 200L * 1000 * 1000;
+    private static final int ROUNDS = 5;
+
+    // results are stored here so that the JIT can't drop the work that produced them
+    protected static volatile Object sink;
+
+    protected interface Operation
+    {
+        void run()
+            throws Exception;
+    }
+
+    @BeforeClass
+    public static void onlyWhenAsked()
+    {
+        Assume.assumeTrue("run with -Pbenchmark", Boolean.getBoolean("benchmark"));
+    }
+
+    /**
+     * Time the replaced implementation and the current one, and print both with the speed up. Both
+     * are warmed up before either is timed and their rounds alternate, so neither gains from code
+     * the JIT compiled while the other ran.
+     */
+    protected static void compare(String name, int bytesPerOperation, Operation before, Operation after)
+        throws Exception
+    {
+        long beforeIterations = warmUp(before);
+        long afterIterations = warmUp(after);
+        double[] beforeNanos = new double[ROUNDS];
+        double[] afterNanos = new double[ROUNDS];
+
+        for (int round = 0; round != ROUNDS; round++)
+        {
+            beforeNanos[round] = time(before, beforeIterations);
+            afterNanos[round] = time(after, afterIterations);
+        }
+
+        double beforeMedian = print(name + ", before", bytesPerOperation, beforeNanos);
+        double afterMedian = print(name + ", after", bytesPerOperation, afterNanos);
+
+        System.out.printf("%-64s %12.2fx%n", name + ", speed up", beforeMedian / afterMedian);
+    }
+
+    /**
+     * Time one operation and print the median, returning it in ns per operation.
+     */
+    protected static double measure(String name, int bytesPerOperation, Operation operation)
+        throws Exception
+    {
+        long iterations = warmUp(operation);
+        double[] nanosPerOperation = new double[ROUNDS];
+
+        for (int round = 0; round != ROUNDS; round++)
+        {
+            nanosPerOperation[round] = time(operation, iterations);
+        }
+
+        return print(name, bytesPerOperation, nanosPerOperation);
+    }
+
+    /**
+     * Run the operation for the warm up time, returning how many iterations make up a round.
+     */
+    private static long warmUp(Operation operation)
+        throws Exception
+    {
+        long end = System.nanoTime() + WARMUP_NANOS;
+        long count = 0;
+        while (System.nanoTime() < end)
+        {
+            operation.run();
+            count++;
+        }
+
+        return Math.max(1, count * ROUND_NANOS / WARMUP_NANOS);
+    }
+
+    private static double time(Operation operation, long iterations)
+        throws Exception
+    {
+        long start = System.nanoTime();
+        for (long i = 0; i != iterations; i++)
+        {
+            operation.run();
+        }
+
+        return (double)(System.nanoTime() - start) / iterations;
+    }
+
+    private static double print(String name, int bytesPerOperation, double[] nanosPerOperation)
+    {
+        Arrays.sort(nanosPerOperation);
+        double median = nanosPerOperation[nanosPerOperation.length / 2];
+
+        if (bytesPerOperation > 0)
+        {
+            System.out.printf("%-64s %12.1f ns/op %10.1f MB/s%n", name, median, bytesPerOperation * 1000.0 / median);
+        }
+        else
+        {
+            System.out.printf("%-64s %12.1f ns/op%n", name, median);
+        }
+
+        return median;
+    }
+
+    /**
+     * Return length bytes of lower case text in lines of 20 to 80 characters.
+     */
+    protected static byte[] lines(int length, String lineEnd)
+    {
+        StringBuilder text = new StringBuilder(length + 80);
+        Random random = new Random(length);
+
+        while (text.length() < length)
+        {
+            int lineLength = 20 + random.nextInt(60);
+            for (int i = 0; i != lineLength; i++)
+            {
+                text.append((char)('a' + random.nextInt(26)));
+            }
+            text.append(lineEnd);
+        }
+        text.setLength(length);
+
+        return text.toString().getBytes();
+    }
+
+    protected static byte[] random(int length)
+    {
+        byte[] data = new byte[length];
+
+        new Random(length).nextBytes(data);
+
+        return data;
+    }
+
+    public static class NullOutputStream
+        extends OutputStream
+    {
+        public NullOutputStream()
+        {
+        }
+
+        public void write(int b)
+        {
+        }
+
+        public void write(byte[] buf, int off, int len)
+        {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.spongycastle.util.encoders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeUtility;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.test.MicroBenchmark;
+import org.spongycastle.util.Strings;
+
+/**
+ * Block based Base64 encoding and decoding against the byte at a time Base64Encoder they replaced,
+ * and Base64OutputStream against the JavaMail encoder that used to write the signature part.
+ */
+public class Base64BenchmarkTest
+    extends MicroBenchmark
+{
+    private static final ByteAtATimeBase64Encoder OLD_ENCODER = new ByteAtATimeBase64Encoder();
+
+    @Test
+    public void encode()
+        throws Exception
+    {
+        final byte[] data = random(1536);
+
+        Assert.assertArrayEquals(oldEncode(data), Base64.encode(data));
+
+        compare("Base64.encode, 1.5 KB", data.length, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                sink = oldEncode(data);
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = Base64.encode(data);
+            }
+        });
+    }
+
+    @Test
+    public void decode()
+        throws Exception
+    {
+        final byte[] data = random(1536);
+        // in 76 column lines, as a base64 body or a PEM block is read
+        final String encoded = Strings.fromByteArray(streamEncode(data));
+
+        Assert.assertArrayEquals(oldDecode(encoded), Base64.decode(encoded));
+
+        compare("Base64.decode, 1.5 KB in lines", data.length, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                sink = oldDecode(encoded);
+            }
+        }, new Operation()
+        {
+            public void run()
+            {
+                sink = Base64.decode(encoded);
+            }
+        });
+    }
+
+    @Test
+    public void stream()
+        throws Exception
+    {
+        final byte[] data = random(64 * 1024);
+
+        // JavaMail leaves the last line without a line end, Base64OutputStream always ends it
+        Assert.assertEquals(Strings.fromByteArray(javaMailEncode(data)) + "\r\n", Strings.fromByteArray(streamEncode(data)));
+
+        compare("base64 stream, 64 KB in 4 KB writes", data.length, new Operation()
+        {
+            public void run()
+                throws IOException, MessagingException
+            {
+                OutputStream out = MimeUtility.encode(new NullOutputStream(), "base64");
+                writeBlocks(out, data);
+                out.flush();
+            }
+        }, new Operation()
+        {
+            public void run()
+                throws IOException
+            {
+                Base64OutputStream out = new Base64OutputStream(new NullOutputStream());
+                writeBlocks(out, data);
+                out.finish();
+            }
+        });
+    }
+
+    /**
+     * Base64.encode as it was, collecting single byte writes in a ByteArrayOutputStream.
+     */
+    private static byte[] oldEncode(byte[] data)
+        throws IOException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream((data.length + 2) / 3 * 4);
+
+        OLD_ENCODER.encode(data, 0, data.length, bOut);
+
+        return bOut.toByteArray();
+    }
+
+    private static byte[] oldDecode(String data)
+        throws IOException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream(data.length() / 4 * 3);
+
+        OLD_ENCODER.decode(data, bOut);
+
+        return bOut.toByteArray();
+    }
+
+    private static byte[] streamEncode(byte[] data)
+        throws IOException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        Base64OutputStream out = new Base64OutputStream(bOut);
+
+        writeBlocks(out, data);
+        out.finish();
+
+        return bOut.toByteArray();
+    }
+
+    private static byte[] javaMailEncode(byte[] data)
+        throws IOException, MessagingException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        OutputStream out = MimeUtility.encode(bOut, "base64");
+
+        writeBlocks(out, data);
+        out.flush();
+
+        return bOut.toByteArray();
+    }
+
+    private static void writeBlocks(OutputStream out, byte[] data)
+        throws IOException
+    {
+        for (int off = 0; off < data.length; off += 4096)
+        {
+            out.write(data, off, Math.min(4096, data.length - off));
+        }
+    }
+}